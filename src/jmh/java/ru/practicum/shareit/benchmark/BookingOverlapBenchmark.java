@@ -0,0 +1,66 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнение двух алгоритмов проверки пересечения нового бронирования с одобренными бронированиями вещи
+ * на данных в памяти, без БД. linearScan повторяет прежний обход всех бронирований вещи с isTimeOverlap,
+ * latestStartedBefore - алгоритм BookingRepository.existsApprovedOverlap: найти последнее бронирование,
+ * начавшееся не позже конца окна, и сравнить его конец с началом окна. Поиск по индексу
+ * (item_id, status, start_date) здесь - двоичный поиск по отсортированному массиву начал, поэтому
+ * стоимость запроса к БД в замер не входит.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookingOverlapBenchmark {
+    private static final LocalDateTime EPOCH = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Param({"10", "100", "1000", "10000"})
+    private int bookings;
+
+    private LocalDateTime[] starts;
+    private LocalDateTime[] ends;
+    private LocalDateTime requestStart;
+    private LocalDateTime requestEnd;
+
+    @Setup
+    public void setUp() {
+        starts = new LocalDateTime[bookings];
+        ends = new LocalDateTime[bookings];
+        for (int i = 0; i < bookings; i++) {
+            starts[i] = EPOCH.plusDays(2L * i);
+            ends[i] = starts[i].plusDays(1);
+        }
+        requestStart = EPOCH.plusDays(2L * bookings + 1);
+        requestEnd = requestStart.plusHours(12);
+    }
+
+    @Benchmark
+    public boolean linearScan() {
+        for (int i = 0; i < bookings; i++) {
+            if (isTimeOverlap(requestStart, requestEnd, starts[i], ends[i])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Benchmark
+    public boolean latestStartedBefore() {
+        int index = Arrays.binarySearch(starts, requestEnd);
+        int last = index >= 0 ? index : -index - 2;
+        return last >= 0 && !ends[last].isBefore(requestStart);
+    }
+
+    private static boolean isTimeOverlap(LocalDateTime newStart, LocalDateTime newEnd, LocalDateTime existStart, LocalDateTime existEnd) {
+        return !(newEnd.isBefore(existStart) || newStart.isAfter(existEnd));
+    }
+}
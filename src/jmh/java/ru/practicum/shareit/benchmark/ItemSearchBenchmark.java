@@ -0,0 +1,54 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.InMemoryItemSearchEngine;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ItemSearchBenchmark {
+    private static final String[] WORDS = {"дрель", "перфоратор", "шуруповёрт", "лестница", "палатка", "велосипед",
+        "самокат", "пила", "рубанок", "молоток", "удочка", "проектор", "колонка", "камера", "штатив", "ноутбук"};
+
+    @Param({"1000", "100000"})
+    private int items;
+
+    @Param({"дрель", "ноутбук игровой", "xyz"})
+    private String query;
+
+    private InMemoryItemSearchEngine engine;
+
+    @Setup
+    public void setUp() {
+        engine = new InMemoryItemSearchEngine(null);
+        Random random = new Random(42);
+
+        for (long id = 1; id <= items; id++) {
+            Item item = new Item();
+            item.setId(id);
+            item.setName(WORDS[random.nextInt(WORDS.length)] + " " + id);
+            item.setDescription(WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)]
+                    + (random.nextInt(10) == 0 ? " игровой" : ""));
+            item.setAvailable(random.nextInt(5) != 0);
+            engine.index(item);
+        }
+    }
+
+    @Benchmark
+    public List<Long> firstPage() {
+        return engine.search(query, 0, 100);
+    }
+
+    @Benchmark
+    public List<Long> topTen() {
+        return engine.searchRanked(query, 10);
+    }
+}
@@ -0,0 +1,113 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.comment.dto.CommentDto;
+import ru.practicum.shareit.comment.mapper.CommentMapper;
+import ru.practicum.shareit.comment.model.Comment;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.mapper.UserMapper;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+    private Item itemWithoutComments;
+    private Booking booking;
+    private Comment comment;
+    private User user;
+
+    @Setup
+    public void setUp() {
+        user = new User();
+        user.setId(1L);
+        user.setName("Пользователь");
+        user.setEmail("user@mail.ru");
+
+        itemWithoutComments = new Item();
+        itemWithoutComments.setId(1L);
+        itemWithoutComments.setName("Дрель");
+        itemWithoutComments.setDescription("Простая дрель");
+        itemWithoutComments.setAvailable(true);
+        itemWithoutComments.setOwner(user);
+
+        comment = CommentMapper.toComment(itemWithoutComments, "Отличная дрель", user);
+
+        booking = new Booking();
+        booking.setId(1L);
+        booking.setStart(LocalDateTime.now());
+        booking.setEnd(LocalDateTime.now().plusDays(1));
+        booking.setItem(itemWithoutComments);
+        booking.setBooker(user);
+        booking.setStatus(Status.APPROVED);
+    }
+
+    @Benchmark
+    public ItemDto itemWithoutComments() {
+        return ItemMapper.toItemDto(itemWithoutComments);
+    }
+
+    @Benchmark
+    public ItemDto itemWithComments(CommentedItem commented) {
+        return ItemMapper.toItemDto(commented.item);
+    }
+
+    @Benchmark
+    public BookingDto booking() {
+        return BookingMapper.toBookingDto(booking);
+    }
+
+    @Benchmark
+    public CommentDto comment() {
+        return CommentMapper.toCommentDto(comment);
+    }
+
+    @Benchmark
+    public UserDto user() {
+        return UserMapper.mapToUserDto(user);
+    }
+
+    @State(Scope.Benchmark)
+    public static class CommentedItem {
+        @Param({"1", "10", "100"})
+        private int comments;
+
+        private Item item;
+
+        @Setup
+        public void setUp() {
+            User author = new User();
+            author.setId(2L);
+            author.setName("Автор");
+            author.setEmail("author@mail.ru");
+
+            item = new Item();
+            item.setId(2L);
+            item.setName("Дрель");
+            item.setDescription("Простая дрель");
+            item.setAvailable(true);
+            item.setOwner(author);
+
+            List<Comment> itemComments = new ArrayList<>();
+            for (int i = 0; i < comments; i++) {
+                itemComments.add(CommentMapper.toComment(item, "Комментарий " + i, author));
+            }
+            item.setComments(itemComments);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package ru.practicum.shareit.loadtest;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItApp;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ShareIt в том же процессе на случайном порту: профиль test, H2 в памяти с заданным именем
+ * (или база по полному jdbc-URL), SQL и журнал транзакций не логируются.
+ * Дополнительные свойства передаются как key=value.
+ */
+public final class EmbeddedShareIt {
+
+    private EmbeddedShareIt() {
+    }
+
+    public static ConfigurableApplicationContext start(String database, String... properties) {
+        List<String> args = new ArrayList<>(List.of("--server.port=0",
+                "--spring.datasource.url=" + (database.startsWith("jdbc:") ? database : "jdbc:h2:mem:" + database),
+                "--spring.main.banner-mode=off",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--logging.level.org.springframework.transaction.interceptor=WARN",
+                "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN"));
+        for (String property : properties) {
+            args.add("--" + property);
+        }
+        return new SpringApplicationBuilder(ShareItApp.class)
+                .profiles("test")
+                .run(args.toArray(new String[0]));
+    }
+
+    public static String baseUrl(ConfigurableApplicationContext context) {
+        return "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+    }
+}
@@ -0,0 +1,72 @@
+package ru.practicum.shareit.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Задержки одной операции в микросекундах и число ответов по классам статусов.
+ * Используется нагрузочным прогоном и бенчмарками из пакета benchmark.
+ */
+public class EndpointStats {
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final String name;
+    private final String endpoint;
+    private final Histogram latencies = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+    private final LongAdder clientErrors = new LongAdder();
+    private final LongAdder serverErrors = new LongAdder();
+
+    public EndpointStats(Operation operation) {
+        this(operation.name().toLowerCase(), operation.getEndpoint());
+    }
+
+    public EndpointStats(String name, String endpoint) {
+        this.name = name;
+        this.endpoint = endpoint;
+    }
+
+    public static void printHeader(PrintStream out) {
+        out.printf("%-26s %9s %9s %9s %9s %9s %9s %9s %7s %7s%n",
+                "endpoint", "requests", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "4xx", "5xx");
+    }
+
+    public void record(long nanos, int status) {
+        latencies.recordValue(Math.min(MAX_LATENCY_MICROS, TimeUnit.NANOSECONDS.toMicros(nanos)));
+        if (status >= 500) {
+            serverErrors.increment();
+        } else if (status >= 400) {
+            clientErrors.increment();
+        }
+    }
+
+    public void reset() {
+        latencies.reset();
+        clientErrors.reset();
+        serverErrors.reset();
+    }
+
+    public void printSummary(PrintStream out, double seconds) {
+        out.printf("%-26s %9d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f %7d %7d%n",
+                endpoint, latencies.getTotalCount(), latencies.getTotalCount() / seconds,
+                millis(50), millis(90), millis(99), millis(99.9), latencies.getMaxValue() / 1000.0,
+                clientErrors.sum(), serverErrors.sum());
+    }
+
+    public void writeHistogram(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        try (PrintStream out = new PrintStream(Files.newOutputStream(directory.resolve(name + ".hgrm")))) {
+            latencies.outputPercentileDistribution(out, 1000.0);
+        }
+    }
+
+    private double millis(double percentile) {
+        return latencies.getValueAtPercentile(percentile) / 1000.0;
+    }
+}
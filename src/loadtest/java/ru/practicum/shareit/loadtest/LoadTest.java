@@ -0,0 +1,201 @@
+package ru.practicum.shareit.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Нагрузочный прогон: поднимает ShareIt на H2 в памяти, заполняет его через REST и в течение
+ * заданного времени гоняет смесь поиска, просмотра вещей, создания и одобрения бронирований
+ * и комментариев. По каждой операции печатает пропускную способность и перцентили задержки,
+ * а полные распределения сохраняет в формате HdrHistogram (*.hgrm).
+ */
+public class LoadTest {
+    static final String[] WORDS = {"дрель", "перфоратор", "шуруповёрт", "лестница", "палатка", "велосипед",
+        "самокат", "пила", "рубанок", "молоток", "удочка", "проектор", "колонка", "камера", "штатив", "ноутбук"};
+
+    private final LoadTestConfig config;
+    private final ShareItClient client;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<Operation, EndpointStats> stats = new EnumMap<>(Operation.class);
+    private final Queue<long[]> pendingBookings = new ConcurrentLinkedQueue<>();
+    private final List<long[]> finishedBookings = new ArrayList<>();
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+    private long[] itemIds;
+    private long[] itemOwners;
+
+    LoadTest(LoadTestConfig config, String baseUrl) {
+        this.config = config;
+        this.client = new ShareItClient(baseUrl);
+
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new EndpointStats(operation));
+        }
+
+        operations = config.mix().keySet().toArray(new Operation[0]);
+        cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += config.mix().get(operations[i]);
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.parse(args);
+
+        try (ConfigurableApplicationContext context = EmbeddedShareIt.start("loadtest", "shareit.jdbc.monitor.slow-request=10s")) {
+            LoadTest loadTest = new LoadTest(config, EmbeddedShareIt.baseUrl(context));
+            loadTest.seed();
+            loadTest.run();
+        }
+    }
+
+    void seed() throws Exception {
+        Random random = new Random(config.seed());
+
+        for (int from = 1; from <= config.users(); from += 1000) {
+            List<String> users = new ArrayList<>();
+            for (int user = from; user < Math.min(from + 1000, config.users() + 1); user++) {
+                users.add("{\"name\":\"user" + user + "\",\"email\":\"loadtest-" + user + "@mail.ru\"}");
+            }
+            checkSuccessful(client.send("POST", "/users/batch", 0, "[" + String.join(",", users) + "]"));
+        }
+
+        List<long[]> items = new ArrayList<>();
+        for (long owner = 1; owner <= config.owners(); owner++) {
+            List<String> batch = new ArrayList<>();
+            for (int i = 0; i < config.itemsPerOwner(); i++) {
+                batch.add("{\"name\":\"" + WORDS[random.nextInt(WORDS.length)] + " " + owner + "-" + i + "\",\"description\":\""
+                        + WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + "\",\"available\":true}");
+            }
+            for (JsonNode result : objectMapper.readTree(checkSuccessful(client.send("POST", "/items/batch", owner, "[" + String.join(",", batch) + "]")))) {
+                items.add(new long[]{result.get("id").asLong(), owner});
+            }
+        }
+        itemIds = items.stream().mapToLong(item -> item[0]).toArray();
+        itemOwners = items.stream().mapToLong(item -> item[1]).toArray();
+
+        for (int i = 0; i < config.commenters(); i++) {
+            long booker = randomBooker(random);
+            int item = random.nextInt(itemIds.length);
+            long itemId = itemIds[item];
+            LocalDateTime start = LocalDateTime.now().minusDays(10 + i * 2L);
+            JsonNode booking = objectMapper.readTree(checkSuccessful(client.send("POST", "/bookings", booker,
+                    "{\"itemId\":" + itemId + ",\"start\":\"" + start + "\",\"end\":\"" + start.plusDays(1) + "\"}")));
+            checkSuccessful(client.send("PATCH", "/bookings/" + booking.get("id").asLong() + "?approved=true", itemOwners[item], null));
+            finishedBookings.add(new long[]{booker, itemId});
+        }
+    }
+
+    void run() throws Exception {
+        System.out.printf("Прогрев %s, замер %s, клиентов %d, смесь %s%n", config.warmup(), config.duration(), config.clients(), config.mix());
+        drive(config.warmup());
+        stats.values().forEach(EndpointStats::reset);
+
+        long started = System.nanoTime();
+        drive(config.duration());
+        double seconds = (System.nanoTime() - started) / 1_000_000_000.0;
+
+        EndpointStats.printHeader(System.out);
+        for (Operation operation : operations) {
+            stats.get(operation).printSummary(System.out, seconds);
+            stats.get(operation).writeHistogram(config.outputDir());
+        }
+        System.out.println("Распределения задержек: " + config.outputDir().toAbsolutePath());
+    }
+
+    private void drive(Duration duration) throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < config.clients(); c++) {
+                Random random = new Random(config.seed() * 31 + c);
+                clients.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        execute(nextOperation(random), random);
+                    }
+                });
+            }
+        }
+    }
+
+    private void execute(Operation operation, Random random) {
+        long started = System.nanoTime();
+        ShareItClient.Response response = switch (operation) {
+            case SEARCH -> client.send("GET", "/items/search?text="
+                    + URLEncoder.encode(WORDS[random.nextInt(WORDS.length)], StandardCharsets.UTF_8), 0, null);
+            case VIEW_ITEM -> client.send("GET", "/items/" + itemIds[random.nextInt(itemIds.length)], 0, null);
+            case CREATE_BOOKING -> createBooking(random);
+            case APPROVE_BOOKING -> approveBooking();
+            case ADD_COMMENT -> {
+                long[] booking = finishedBookings.get(random.nextInt(finishedBookings.size()));
+                yield client.send("POST", "/items/" + booking[1] + "/comment", booking[0], "{\"text\":\"Отличная вещь\"}");
+            }
+        };
+
+        if (response != null) {
+            stats.get(operation).record(System.nanoTime() - started, response.status());
+        }
+    }
+
+    private ShareItClient.Response createBooking(Random random) {
+        int item = random.nextInt(itemIds.length);
+        LocalDateTime start = LocalDateTime.now().plusDays(1 + random.nextInt(3650)).plusHours(random.nextInt(24));
+        ShareItClient.Response response = client.send("POST", "/bookings", randomBooker(random),
+                "{\"itemId\":" + itemIds[item] + ",\"start\":\"" + start + "\",\"end\":\"" + start.plusHours(1 + random.nextInt(48)) + "\"}");
+
+        if (response.isSuccessful()) {
+            try {
+                pendingBookings.add(new long[]{objectMapper.readTree(response.body()).get("id").asLong(), itemOwners[item]});
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        return response;
+    }
+
+    private ShareItClient.Response approveBooking() {
+        long[] booking = pendingBookings.poll();
+        if (booking == null) {
+            return null;
+        }
+        return client.send("PATCH", "/bookings/" + booking[0] + "?approved=true", booking[1], null);
+    }
+
+    private Operation nextOperation(Random random) {
+        int value = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (value < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    private long randomBooker(Random random) {
+        return config.owners() + 1 + random.nextInt(config.users() - config.owners());
+    }
+
+    private static String checkSuccessful(ShareItClient.Response response) {
+        if (!response.isSuccessful()) {
+            throw new IllegalStateException("Не удалось заполнить данные: " + response.status() + " " + response.body());
+        }
+        return response.body();
+    }
+}
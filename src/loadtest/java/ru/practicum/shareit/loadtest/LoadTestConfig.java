@@ -0,0 +1,63 @@
+package ru.practicum.shareit.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Параметры прогона в виде key=value. Доля операций задаётся ключом mix, например
+ * mix=search:40,view_item:35,create_booking:10,approve_booking:10,add_comment:5.
+ */
+public record LoadTestConfig(Duration warmup, Duration duration, int clients, int users, int owners, int itemsPerOwner,
+                             int commenters, long seed, Map<Operation, Integer> mix, Path outputDir) {
+
+    public LoadTestConfig {
+        if (commenters <= 0 && mix.getOrDefault(Operation.ADD_COMMENT, 0) > 0) {
+            throw new IllegalArgumentException("Для add_comment нужен хотя бы один комментатор: commenters=" + commenters);
+        }
+    }
+
+    public static LoadTestConfig parse(String[] args) {
+        Map<String, String> values = keyValues(args);
+
+        return new LoadTestConfig(
+                duration(values.getOrDefault("warmup", "10s")),
+                duration(values.getOrDefault("duration", "60s")),
+                Integer.parseInt(values.getOrDefault("clients", "100")),
+                Integer.parseInt(values.getOrDefault("users", "1000")),
+                Integer.parseInt(values.getOrDefault("owners", "100")),
+                Integer.parseInt(values.getOrDefault("items-per-owner", "20")),
+                Integer.parseInt(values.getOrDefault("commenters", "200")),
+                Long.parseLong(values.getOrDefault("seed", "42")),
+                parseMix(values.getOrDefault("mix", "search:40,view_item:35,create_booking:10,approve_booking:10,add_comment:5")),
+                Path.of(values.getOrDefault("output", "target/loadtest")));
+    }
+
+    public static Map<String, String> keyValues(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Ожидался параметр вида key=value: " + arg);
+            }
+            values.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+        return values;
+    }
+
+    public static Duration duration(String value) {
+        return Duration.parse("PT" + value.toUpperCase(Locale.ROOT));
+    }
+
+    private static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String part : mix.split(",")) {
+            String[] weight = part.split(":");
+            weights.put(Operation.valueOf(weight[0].trim().toUpperCase(Locale.ROOT)), Integer.parseInt(weight[1].trim()));
+        }
+        return weights;
+    }
+}
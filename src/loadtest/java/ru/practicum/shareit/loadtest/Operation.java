@@ -0,0 +1,19 @@
+package ru.practicum.shareit.loadtest;
+
+public enum Operation {
+    SEARCH("GET /items/search"),
+    VIEW_ITEM("GET /items/{id}"),
+    CREATE_BOOKING("POST /bookings"),
+    APPROVE_BOOKING("PATCH /bookings/{id}"),
+    ADD_COMMENT("POST /items/{id}/comment");
+
+    private final String endpoint;
+
+    Operation(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+}
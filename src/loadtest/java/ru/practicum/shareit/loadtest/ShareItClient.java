@@ -0,0 +1,58 @@
+package ru.practicum.shareit.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Executors;
+
+/**
+ * HTTP-клиент к запущенному ShareIt: каждый запрос при необходимости несёт X-Sharer-User-Id
+ * и дополнительные заголовки, переданные парами имя, значение.
+ */
+public class ShareItClient {
+    private static final HttpHeaders EMPTY_HEADERS = HttpHeaders.of(Map.of(), (name, value) -> true);
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+    private final String baseUrl;
+
+    public ShareItClient(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    public Response send(String method, String path, long userId, String body, String... headers) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .method(method, body == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(body));
+        if (userId > 0) {
+            request.header("X-Sharer-User-Id", String.valueOf(userId));
+        }
+        for (int i = 0; i + 1 < headers.length; i += 2) {
+            request.header(headers[i], headers[i + 1]);
+        }
+
+        try {
+            HttpResponse<String> response = client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+            return new Response(response.statusCode(), response.body(), response.headers());
+        } catch (IOException e) {
+            return new Response(599, e.getMessage(), EMPTY_HEADERS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new Response(599, e.getMessage(), EMPTY_HEADERS);
+        }
+    }
+
+    public record Response(int status, String body, HttpHeaders headers) {
+        public boolean isSuccessful() {
+            return status >= 200 && status < 300;
+        }
+    }
+}
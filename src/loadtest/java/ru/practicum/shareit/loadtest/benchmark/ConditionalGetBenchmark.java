@@ -0,0 +1,146 @@
+package ru.practicum.shareit.loadtest.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.management.OperatingSystemMXBean;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.loadtest.EmbeddedShareIt;
+import ru.practicum.shareit.loadtest.EndpointStats;
+import ru.practicum.shareit.loadtest.LoadTestConfig;
+import ru.practicum.shareit.loadtest.ShareItClient;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+/**
+ * Опрос GET /items/{id} и GET /users/{id} без If-None-Match и с ним: задержка, байты тела и процессорное
+ * время процесса (сервер и клиент вместе) на один опрос. Вещи заполнены отзывами, поэтому полный ответ -
+ * это загрузка вещи с отзывами и их сериализация. Первый проход - прогрев, итог печатается по второму.
+ * Запуск: mvn -Ploadtest verify -DskipTests -Dloadtest.main=ru.practicum.shareit.loadtest.benchmark.ConditionalGetBenchmark
+ * -Dloadtest.args="polls=20000".
+ */
+public class ConditionalGetBenchmark {
+    private static final int ITEMS = 10;
+    private static final int COMMENTERS = 30;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final OperatingSystemMXBean os = (OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+    private final List<Long> itemIds = new ArrayList<>();
+    private final ShareItClient client;
+    private final int polls;
+    private long ownerId;
+
+    private ConditionalGetBenchmark(ShareItClient client, int polls) {
+        this.client = client;
+        this.polls = polls;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> values = LoadTestConfig.keyValues(args);
+        int polls = Integer.parseInt(values.getOrDefault("polls", "20000"));
+        Path output = Path.of(values.getOrDefault("output", "target/loadtest/conditional-get"));
+
+        try (ConfigurableApplicationContext context = EmbeddedShareIt.start("conditional-get")) {
+            ConditionalGetBenchmark benchmark = new ConditionalGetBenchmark(new ShareItClient(EmbeddedShareIt.baseUrl(context)), polls);
+            benchmark.seed();
+            benchmark.run(false, output);
+            benchmark.run(true, output);
+        }
+    }
+
+    private void run(boolean report, Path output) throws Exception {
+        String[] itemETags = new String[ITEMS];
+        for (int i = 0; i < ITEMS; i++) {
+            itemETags[i] = etag("/items/" + itemIds.get(i));
+        }
+        String userETag = etag("/users/" + ownerId);
+
+        List<Result> results = List.of(
+                poll("items_full", "GET /items/{id}", i -> client.send("GET", "/items/" + itemIds.get(i), 0, null)),
+                poll("items_conditional", "GET /items/{id} 304", i -> client.send("GET", "/items/" + itemIds.get(i),
+                        0, null, "If-None-Match", itemETags[i])),
+                poll("users_full", "GET /users/{id}", i -> client.send("GET", "/users/" + ownerId, 0, null)),
+                poll("users_conditional", "GET /users/{id} 304", i -> client.send("GET", "/users/" + ownerId,
+                        0, null, "If-None-Match", userETag)));
+        if (!report) {
+            return;
+        }
+
+        System.out.printf("Опросов на вариант: %d%n", polls);
+        EndpointStats.printHeader(System.out);
+        for (Result result : results) {
+            result.stats().printSummary(System.out, result.seconds());
+            result.stats().writeHistogram(output);
+        }
+        System.out.printf("%-26s %12s %14s%n", "endpoint", "bytes/poll", "cpu us/poll");
+        for (Result result : results) {
+            System.out.printf("%-26s %12d %14.1f%n", result.endpoint(), result.bytesPerPoll(), result.cpuMicrosPerPoll());
+        }
+        System.out.println("Распределения задержек: " + output.toAbsolutePath());
+    }
+
+    private Result poll(String name, String endpoint, IntFunction<ShareItClient.Response> request) {
+        EndpointStats stats = new EndpointStats(name, endpoint);
+        long bytes = 0;
+        long cpuStarted = os.getProcessCpuTime();
+        long started = System.nanoTime();
+
+        for (int i = 0; i < polls; i++) {
+            long requestStarted = System.nanoTime();
+            ShareItClient.Response response = request.apply(i % ITEMS);
+            stats.record(System.nanoTime() - requestStarted, response.status());
+            bytes += response.body().getBytes(StandardCharsets.UTF_8).length;
+        }
+
+        return new Result(endpoint, stats, (System.nanoTime() - started) / 1_000_000_000.0, bytes / polls,
+                (os.getProcessCpuTime() - cpuStarted) / 1000.0 / polls);
+    }
+
+    private String etag(String path) {
+        return client.send("GET", path, 0, null).headers().firstValue("ETag").orElseThrow();
+    }
+
+    private void seed() throws Exception {
+        List<Long> commenters = new ArrayList<>();
+        ownerId = idOf(client.send("POST", "/users", 0, "{\"name\":\"owner\",\"email\":\"conditional-owner@mail.ru\"}"));
+        for (int user = 0; user < COMMENTERS; user++) {
+            commenters.add(idOf(client.send("POST", "/users", 0,
+                    "{\"name\":\"user" + user + "\",\"email\":\"conditional-" + user + "@mail.ru\"}")));
+        }
+        for (int item = 0; item < ITEMS; item++) {
+            itemIds.add(idOf(client.send("POST", "/items", ownerId,
+                    "{\"name\":\"Дрель " + item + "\",\"description\":\"Ударная дрель с набором свёрл\",\"available\":true}")));
+        }
+
+        for (long itemId : itemIds) {
+            for (int i = 0; i < commenters.size(); i++) {
+                long booker = commenters.get(i);
+                LocalDateTime start = LocalDateTime.now().minusDays(i * 2L + 3);
+                long bookingId = idOf(client.send("POST", "/bookings", booker, "{\"itemId\":" + itemId
+                        + ",\"start\":\"" + start + "\",\"end\":\"" + start.plusDays(1) + "\"}"));
+                checkSuccessful(client.send("PATCH", "/bookings/" + bookingId + "?approved=true", ownerId, null));
+                checkSuccessful(client.send("POST", "/items/" + itemId + "/comment", booker,
+                        "{\"text\":\"Отличная дрель, брал на выходные, всё по описанию\"}"));
+            }
+        }
+    }
+
+    private long idOf(ShareItClient.Response response) throws Exception {
+        return objectMapper.readTree(checkSuccessful(response)).get("id").asLong();
+    }
+
+    private static String checkSuccessful(ShareItClient.Response response) {
+        if (!response.isSuccessful()) {
+            throw new IllegalStateException("Не удалось заполнить данные: " + response.status() + " " + response.body());
+        }
+        return response.body();
+    }
+
+    private record Result(String endpoint, EndpointStats stats, double seconds, long bytesPerPoll, double cpuMicrosPerPoll) {
+    }
+}
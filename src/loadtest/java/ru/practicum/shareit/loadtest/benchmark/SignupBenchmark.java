@@ -0,0 +1,101 @@
+package ru.practicum.shareit.loadtest.benchmark;
+
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.exception.DuplicatedDataException;
+import ru.practicum.shareit.loadtest.EmbeddedShareIt;
+import ru.practicum.shareit.loadtest.EndpointStats;
+import ru.practicum.shareit.loadtest.LoadTestConfig;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Регистрация пользователей через UserService в threads потоков по signups адресов на поток; каждый
+ * десятый адрес регистрируется повторно и должен получить DuplicatedDataException. Первые раунды -
+ * прогрев, итог печатается по последнему. Фильтр Блума по email включается ключом bloom-filter=true.
+ * Запуск: mvn -Ploadtest verify -DskipTests -Dloadtest.main=ru.practicum.shareit.loadtest.benchmark.SignupBenchmark
+ * -Dloadtest.args="threads=8 signups=1000 rounds=3 bloom-filter=false".
+ */
+public class SignupBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> values = LoadTestConfig.keyValues(args);
+        int threads = Integer.parseInt(values.getOrDefault("threads", "8"));
+        int signups = Integer.parseInt(values.getOrDefault("signups", "1000"));
+        int rounds = Integer.parseInt(values.getOrDefault("rounds", "3"));
+        boolean bloomFilter = Boolean.parseBoolean(values.getOrDefault("bloom-filter", "false"));
+        Path output = Path.of(values.getOrDefault("output", "target/loadtest/signup"));
+
+        try (ConfigurableApplicationContext context = EmbeddedShareIt.start("signup",
+                "shareit.users.email-bloom-filter.enabled=" + bloomFilter,
+                "logging.level.org.hibernate.engine.jdbc.spi.SqlExceptionHelper=OFF",
+                "logging.level.org.hibernate.orm.jdbc.batch=OFF")) {
+            UserService userService = context.getBean(UserService.class);
+            EndpointStats created = new EndpointStats("signup", "createUser");
+            EndpointStats duplicates = new EndpointStats("signup_duplicate", "createUser duplicate");
+
+            System.out.printf("Потоков %d, регистраций на поток %d, раундов %d, фильтр Блума %s%n",
+                    threads, signups, rounds, bloomFilter ? "включен" : "выключен");
+            for (int round = 0; round < rounds; round++) {
+                created.reset();
+                duplicates.reset();
+                double seconds = runRound(userService, "round" + round, threads, signups, created, duplicates);
+                System.out.printf("раунд %d: %.0f регистраций/с%n", round, threads * signups / seconds);
+                if (round == rounds - 1) {
+                    EndpointStats.printHeader(System.out);
+                    created.printSummary(System.out, seconds);
+                    duplicates.printSummary(System.out, seconds);
+                    created.writeHistogram(output);
+                    duplicates.writeHistogram(output);
+                }
+            }
+        }
+    }
+
+    private static double runRound(UserService userService, String prefix, int threads, int signups,
+                                   EndpointStats created, EndpointStats duplicates) throws Exception {
+        List<Future<?>> futures = new ArrayList<>();
+        long started = System.nanoTime();
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            for (int thread = 0; thread < threads; thread++) {
+                String threadPrefix = prefix + "-" + thread + "-";
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < signups; i++) {
+                        String email = threadPrefix + i + "@mail.ru";
+                        signup(userService, email, created);
+                        if (i % 10 == 0) {
+                            signup(userService, email, duplicates);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        return (System.nanoTime() - started) / 1_000_000_000.0;
+    }
+
+    private static void signup(UserService userService, String email, EndpointStats stats) {
+        User user = new User();
+        user.setName("user");
+        user.setEmail(email);
+        long started = System.nanoTime();
+        int status = 201;
+        try {
+            userService.createUser(user);
+        } catch (DuplicatedDataException e) {
+            status = 409;
+        }
+        stats.record(System.nanoTime() - started, status);
+    }
+}
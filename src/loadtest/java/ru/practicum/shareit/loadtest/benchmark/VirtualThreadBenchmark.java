@@ -0,0 +1,146 @@
+package ru.practicum.shareit.loadtest.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.loadtest.EmbeddedShareIt;
+import ru.practicum.shareit.loadtest.EndpointStats;
+import ru.practicum.shareit.loadtest.LoadTestConfig;
+import ru.practicum.shareit.loadtest.ShareItClient;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Сравнение обработки запросов на потоках платформы и на виртуальных потоках: одно и то же приложение
+ * поднимается дважды и нагружается одинаковой смесью GET /items/{id}, GET /items и GET /bookings.
+ * Запуск: mvn -Ploadtest verify -DskipTests -Dloadtest.main=ru.practicum.shareit.loadtest.benchmark.VirtualThreadBenchmark
+ * -Dloadtest.args="clients=400 tomcat-threads=50 warmup=5s duration=15s". По умолчанию H2 в памяти,
+ * для Postgres задайте datasource=jdbc:postgresql://... и учётные данные через spring.datasource.*.
+ */
+public class VirtualThreadBenchmark {
+    private static final int OWNERS = 10;
+    private static final int ITEMS_PER_OWNER = 20;
+    private static final int BOOKERS = 50;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<Long> itemIds = new ArrayList<>();
+    private final List<Long> ownerIds = new ArrayList<>();
+    private final List<Long> bookerIds = new ArrayList<>();
+    private final ShareItClient client;
+
+    private VirtualThreadBenchmark(ShareItClient client) {
+        this.client = client;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> values = LoadTestConfig.keyValues(args);
+        int clients = Integer.parseInt(values.getOrDefault("clients", "400"));
+        int tomcatThreads = Integer.parseInt(values.getOrDefault("tomcat-threads", "50"));
+        Duration warmup = LoadTestConfig.duration(values.getOrDefault("warmup", "5s"));
+        Duration duration = LoadTestConfig.duration(values.getOrDefault("duration", "15s"));
+        Path output = Path.of(values.getOrDefault("output", "target/loadtest/virtual-threads"));
+
+        System.out.printf("Клиентов %d, потоков Tomcat %d, прогрев %s, замер %s%n", clients, tomcatThreads, warmup, duration);
+        for (boolean virtualThreads : new boolean[]{false, true}) {
+            String mode = virtualThreads ? "virtual" : "platform";
+            try (ConfigurableApplicationContext context = EmbeddedShareIt.start(
+                    values.getOrDefault("datasource", "benchmark-" + mode),
+                    "spring.threads.virtual.enabled=" + virtualThreads,
+                    "server.tomcat.threads.max=" + tomcatThreads)) {
+                VirtualThreadBenchmark benchmark = new VirtualThreadBenchmark(new ShareItClient(EmbeddedShareIt.baseUrl(context)));
+                benchmark.seed();
+
+                EndpointStats[] stats = {
+                    new EndpointStats(mode + "_view_item", "GET /items/{id}"),
+                    new EndpointStats(mode + "_owner_items", "GET /items"),
+                    new EndpointStats(mode + "_bookings", "GET /bookings")
+                };
+                benchmark.load(clients, warmup, stats);
+                for (EndpointStats endpoint : stats) {
+                    endpoint.reset();
+                }
+                long started = System.nanoTime();
+                benchmark.load(clients, duration, stats);
+                double seconds = (System.nanoTime() - started) / 1_000_000_000.0;
+
+                System.out.println("Потоки " + mode + ":");
+                EndpointStats.printHeader(System.out);
+                for (EndpointStats endpoint : stats) {
+                    endpoint.printSummary(System.out, seconds);
+                    endpoint.writeHistogram(output);
+                }
+            }
+        }
+        System.out.println("Распределения задержек: " + output.toAbsolutePath());
+    }
+
+    private void seed() throws Exception {
+        for (int user = 0; user < OWNERS + BOOKERS; user++) {
+            long id = idOf(client.send("POST", "/users", 0,
+                    "{\"name\":\"user" + user + "\",\"email\":\"vt-user" + user + "@mail.ru\"}"));
+            (user < OWNERS ? ownerIds : bookerIds).add(id);
+        }
+
+        for (long owner : ownerIds) {
+            List<String> items = new ArrayList<>();
+            for (int i = 0; i < ITEMS_PER_OWNER; i++) {
+                items.add("{\"name\":\"item" + owner + "-" + i + "\",\"description\":\"description\",\"available\":true}");
+            }
+            for (JsonNode result : objectMapper.readTree(body(client.send("POST", "/items/batch", owner,
+                    "[" + String.join(",", items) + "]")))) {
+                itemIds.add(result.get("id").asLong());
+            }
+        }
+
+        Random random = new Random(42);
+        for (int booker = 0; booker < bookerIds.size(); booker++) {
+            for (int i = 0; i < 4; i++) {
+                LocalDateTime start = LocalDateTime.now().plusDays(booker * 10L + i + 1);
+                body(client.send("POST", "/bookings", bookerIds.get(booker), "{\"itemId\":"
+                        + itemIds.get(random.nextInt(itemIds.size())) + ",\"start\":\"" + start
+                        + "\",\"end\":\"" + start.plusHours(1) + "\"}"));
+            }
+        }
+    }
+
+    private void load(int clients, Duration duration, EndpointStats[] stats) {
+        long deadline = System.nanoTime() + duration.toNanos();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < clients; c++) {
+                Random random = new Random(c);
+                executor.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        int operation = random.nextInt(stats.length);
+                        long started = System.nanoTime();
+                        ShareItClient.Response response = switch (operation) {
+                            case 0 -> client.send("GET", "/items/" + itemIds.get(random.nextInt(itemIds.size())), 0, null);
+                            case 1 -> client.send("GET", "/items", ownerIds.get(random.nextInt(ownerIds.size())), null);
+                            default -> client.send("GET", "/bookings", bookerIds.get(random.nextInt(bookerIds.size())), null);
+                        };
+                        stats[operation].record(System.nanoTime() - started, response.status());
+                    }
+                });
+            }
+        }
+    }
+
+    private long idOf(ShareItClient.Response response) throws Exception {
+        return objectMapper.readTree(body(response)).get("id").asLong();
+    }
+
+    private static String body(ShareItClient.Response response) {
+        if (!response.isSuccessful()) {
+            throw new IllegalStateException("Не удалось заполнить данные: " + response.status() + " " + response.body());
+        }
+        return response.body();
+    }
+}
@@ -0,0 +1,56 @@
+package ru.practicum.shareit.loadtest.dataset;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Размеры и распределения синтетического набора данных в виде key=value.
+ * Одинаковые seed и base-time дают одинаковые данные вплоть до id и отметок времени.
+ */
+public record DatasetConfig(String url, String username, String password, boolean initSchema, boolean truncate,
+                            long seed, LocalDateTime baseTime, int batchSize,
+                            int users, int items, long bookings, int requests,
+                            double ownerSkew, double itemSkew, double bookerSkew,
+                            int historyDays, int futureDays, int maxBookingsPerItem,
+                            double commentRate, double itemRequestRate) {
+
+    public static DatasetConfig parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Ожидался параметр вида key=value: " + arg);
+            }
+            values.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+
+        DatasetConfig config = new DatasetConfig(
+                values.getOrDefault("url", "jdbc:postgresql://localhost:5432/shareit"),
+                values.getOrDefault("username", "postgres"),
+                values.getOrDefault("password", "12345"),
+                Boolean.parseBoolean(values.getOrDefault("init-schema", "false")),
+                Boolean.parseBoolean(values.getOrDefault("truncate", "false")),
+                Long.parseLong(values.getOrDefault("seed", "42")),
+                values.containsKey("base-time") ? LocalDateTime.parse(values.get("base-time")) : LocalDate.now().atStartOfDay(),
+                Integer.parseInt(values.getOrDefault("batch-size", "5000")),
+                Integer.parseInt(values.getOrDefault("users", "100000")),
+                Integer.parseInt(values.getOrDefault("items", "200000")),
+                Long.parseLong(values.getOrDefault("bookings", "2000000")),
+                Integer.parseInt(values.getOrDefault("requests", "10000")),
+                Double.parseDouble(values.getOrDefault("owner-skew", "1.1")),
+                Double.parseDouble(values.getOrDefault("item-skew", "1.0")),
+                Double.parseDouble(values.getOrDefault("booker-skew", "0.8")),
+                Integer.parseInt(values.getOrDefault("history-days", "730")),
+                Integer.parseInt(values.getOrDefault("future-days", "90")),
+                Integer.parseInt(values.getOrDefault("max-bookings-per-item", "20000")),
+                Double.parseDouble(values.getOrDefault("comment-rate", "0.3")),
+                Double.parseDouble(values.getOrDefault("item-request-rate", "0.05")));
+
+        if (config.users() < 2 || config.items() < 1) {
+            throw new IllegalArgumentException("Нужны хотя бы два пользователя и одна вещь");
+        }
+        return config;
+    }
+}
@@ -0,0 +1,319 @@
+package ru.practicum.shareit.loadtest.dataset;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.Random;
+
+/**
+ * Заполняет таблицы users, requests, items, bookings и comments синтетическими данными.
+ * <p>
+ * Владельцы, популярность вещей и активность арендаторов распределены по Ципфу, поэтому есть и
+ * вещи с длинной историей бронирований и множеством отзывов, и «хвост» почти без них. История
+ * каждой вещи строится из собственного генератора случайных чисел, посеянного id вещи: бронирования
+ * и отзывы к ним получаются в двух независимых проходах без хранения бронирований в памяти.
+ * Одобренные бронирования одной вещи не пересекаются по времени. Загрузка идёт через COPY в Postgres
+ * и JDBC-пакетами в H2, после неё сдвигаются последовательности и identity-столбцы.
+ * <p>
+ * mvn -Ploadtest verify -DskipTests -Dloadtest.main=ru.practicum.shareit.loadtest.dataset.DatasetGenerator
+ * -Dloadtest.args="url=jdbc:postgresql://localhost:5432/shareit truncate=true users=1000000 items=2000000 bookings=20000000"
+ */
+public class DatasetGenerator {
+    private static final String[] FIRST_NAMES = {"Анна", "Иван", "Мария", "Пётр", "Ольга", "Сергей", "Елена", "Дмитрий",
+        "Наталья", "Алексей", "Татьяна", "Михаил", "Ирина", "Андрей", "Светлана", "Николай"};
+    private static final String[] LAST_NAMES = {"Иванов", "Смирнов", "Кузнецов", "Попов", "Васильев", "Петров",
+        "Соколов", "Михайлов", "Новиков", "Фёдоров", "Морозов", "Волков", "Алексеев", "Лебедев", "Семёнов", "Егоров"};
+    private static final String[] NOUNS = {"дрель", "перфоратор", "шуруповёрт", "лестница", "палатка", "велосипед",
+        "самокат", "пила", "рубанок", "молоток", "удочка", "проектор", "колонка", "камера", "штатив", "ноутбук",
+        "лодка", "коньки", "лыжи", "генератор", "компрессор", "болгарка", "сноуборд", "гамак"};
+    private static final String[] ADJECTIVES = {"мощный", "компактный", "новый", "надёжный", "лёгкий", "профессиональный",
+        "складной", "туристический", "детский", "аккумуляторный", "электрический", "старый"};
+    private static final String[] COMMENTS = {"Всё отлично, рекомендую", "Работает как надо", "Хозяин вещи очень отзывчивый",
+        "Вещь немного потрёпана, но справилась", "Спасибо, выручили", "Забирал вовремя, всё по описанию",
+        "Не хватало зарядки в комплекте", "Брал на выходные, остался доволен"};
+
+    private static final String[] USER_COLUMNS = {"id", "name", "email"};
+    private static final String[] REQUEST_COLUMNS = {"id", "description", "requestor_id", "created"};
+    private static final String[] ITEM_COLUMNS = {"id", "name", "description", "is_available", "owner_id", "request_id"};
+    private static final String[] BOOKING_COLUMNS = {"id", "start_date", "end_date", "item_id", "booker_id", "status"};
+    private static final String[] COMMENT_COLUMNS = {"id", "text", "item_id", "author_id", "created"};
+
+    private static final long MINUTES_PER_DAY = 24 * 60;
+    private static final long MAX_BOOKING_MINUTES = 14 * MINUTES_PER_DAY;
+
+    private final DatasetConfig config;
+    private final Connection connection;
+    private final boolean postgres;
+    private final ZipfDistribution itemPopularity;
+    private final ZipfDistribution bookerActivity;
+    private final int[] itemOwners;
+    private final int itemStep;
+    private final int userStep;
+
+    DatasetGenerator(DatasetConfig config, Connection connection) throws SQLException {
+        this.config = config;
+        this.connection = connection;
+        this.postgres = "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName());
+        this.itemPopularity = new ZipfDistribution(config.items(), config.itemSkew());
+        this.bookerActivity = new ZipfDistribution(config.users(), config.bookerSkew());
+        this.itemOwners = new int[config.items() + 1];
+        this.itemStep = coprimeStep(config.items());
+        this.userStep = coprimeStep(config.users());
+    }
+
+    public static void main(String[] args) throws Exception {
+        DatasetConfig config = DatasetConfig.parse(args);
+
+        try (Connection connection = DriverManager.getConnection(config.url(), config.username(), config.password())) {
+            connection.setAutoCommit(false);
+            new DatasetGenerator(config, connection).generate();
+        }
+    }
+
+    void generate() throws SQLException {
+        long started = System.nanoTime();
+        System.out.printf("Набор данных: seed=%d, base-time=%s, %s%n", config.seed(), config.baseTime(), postgres ? "COPY" : "JDBC batch");
+
+        if (config.initSchema()) {
+            ResourceDatabasePopulator populator = new ResourceDatabasePopulator(new ClassPathResource("schema.sql"));
+            if (postgres) {
+                populator.addScript(new ClassPathResource("schema-postgresql.sql"));
+            }
+            populator.populate(connection);
+            connection.commit();
+        }
+        prepareTables();
+
+        report("users", generateUsers(), started);
+        report("requests", generateRequests(), started);
+        report("items", generateItems(), started);
+        report("bookings", generateBookings(), started);
+        report("comments", generateComments(), started);
+
+        resetSequences();
+        if (postgres) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("ANALYZE users, requests, items, bookings, comments");
+            }
+            connection.commit();
+        }
+        System.out.printf("Готово за %.1f с%n", (System.nanoTime() - started) / 1_000_000_000.0);
+    }
+
+    private void prepareTables() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            if (config.truncate()) {
+                if (postgres) {
+                    statement.execute("TRUNCATE comments, bookings, items, requests, users RESTART IDENTITY");
+                } else {
+                    statement.execute("SET REFERENTIAL_INTEGRITY FALSE");
+                    for (String table : new String[]{"comments", "bookings", "items", "requests", "users"}) {
+                        statement.execute("TRUNCATE TABLE " + table + " RESTART IDENTITY");
+                    }
+                    statement.execute("SET REFERENTIAL_INTEGRITY TRUE");
+                }
+                connection.commit();
+            } else if (maxId(statement, "users") > 0) {
+                throw new IllegalStateException("Таблица users не пуста: укажите truncate=true, чтобы перезаписать данные");
+            }
+        }
+    }
+
+    private long generateUsers() throws SQLException {
+        Random random = new Random(config.seed());
+
+        try (RowWriter users = writer("users", USER_COLUMNS)) {
+            for (long id = 1; id <= config.users(); id++) {
+                users.write(id, FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + LAST_NAMES[random.nextInt(LAST_NAMES.length)],
+                        "user" + id + "@shareit.test");
+            }
+            return users.count();
+        }
+    }
+
+    private long generateRequests() throws SQLException {
+        Random random = new Random(config.seed() + 1);
+
+        try (RowWriter requests = writer("requests", REQUEST_COLUMNS)) {
+            for (long id = 1; id <= config.requests(); id++) {
+                requests.write(id, "Ищу " + NOUNS[random.nextInt(NOUNS.length)] + " на пару дней",
+                        1L + random.nextInt(config.users()),
+                        config.baseTime().minusMinutes(randomMinutes(random, config.historyDays() * MINUTES_PER_DAY)));
+            }
+            return requests.count();
+        }
+    }
+
+    /**
+     * Владелец выбирается по Ципфу: у немногих пользователей сотни вещей, у большинства - ни одной.
+     */
+    private long generateItems() throws SQLException {
+        Random random = new Random(config.seed() + 2);
+        ZipfDistribution owners = new ZipfDistribution(config.users(), config.ownerSkew());
+
+        try (RowWriter items = writer("items", ITEM_COLUMNS)) {
+            for (int id = 1; id <= config.items(); id++) {
+                itemOwners[id] = owners.sample(random);
+                String noun = NOUNS[random.nextInt(NOUNS.length)];
+                items.write((long) id,
+                        ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " " + noun,
+                        "Сдаю " + noun + ", " + ADJECTIVES[random.nextInt(ADJECTIVES.length)] + ", " + NOUNS[random.nextInt(NOUNS.length)] + " в комплекте",
+                        random.nextInt(10) != 0,
+                        (long) itemOwners[id],
+                        config.requests() > 0 && random.nextDouble() < config.itemRequestRate() ? 1L + random.nextInt(config.requests()) : null);
+            }
+            return items.count();
+        }
+    }
+
+    private long generateBookings() throws SQLException {
+        try (RowWriter bookings = writer("bookings", BOOKING_COLUMNS)) {
+            for (int rank = 1; rank <= config.items(); rank++) {
+                forEachBooking(rank, (itemId, bookerId, start, end, status, commentCreated) ->
+                        bookings.write(bookings.count() + 1, start, end, itemId, bookerId, status));
+            }
+            return bookings.count();
+        }
+    }
+
+    private long generateComments() throws SQLException {
+        Random texts = new Random(config.seed() + 3);
+
+        try (RowWriter comments = writer("comments", COMMENT_COLUMNS)) {
+            for (int rank = 1; rank <= config.items(); rank++) {
+                forEachBooking(rank, (itemId, bookerId, start, end, status, commentCreated) -> {
+                    if (commentCreated != null) {
+                        comments.write(comments.count() + 1, COMMENTS[texts.nextInt(COMMENTS.length)], itemId, bookerId, commentCreated);
+                    }
+                });
+            }
+            return comments.count();
+        }
+    }
+
+    /**
+     * История бронирований вещи с данным рангом популярности. Окно [base - history-days, base + future-days]
+     * делится на равные слоты по числу бронирований, каждое бронирование лежит строго внутри своего слота.
+     */
+    private void forEachBooking(int rank, BookingConsumer consumer) throws SQLException {
+        long itemId = (long) (rank - 1) * itemStep % config.items() + 1;
+        Random random = new Random(config.seed() ^ itemId * 0x9E3779B97F4A7C15L);
+
+        double expected = config.bookings() * itemPopularity.probability(rank);
+        long windowMinutes = (config.historyDays() + config.futureDays()) * MINUTES_PER_DAY;
+        int count = (int) Math.min(Math.min((long) expected + (random.nextDouble() < expected % 1 ? 1 : 0), config.maxBookingsPerItem()),
+                windowMinutes / 2);
+        if (count == 0) {
+            return;
+        }
+
+        LocalDateTime windowStart = config.baseTime().minusDays(config.historyDays());
+        long slot = windowMinutes / count;
+        for (int i = 0; i < count; i++) {
+            long duration = 1 + randomMinutes(random, Math.min(slot * 3 / 4, MAX_BOOKING_MINUTES));
+            LocalDateTime start = windowStart.plusMinutes(i * slot + randomMinutes(random, slot - duration));
+            LocalDateTime end = start.plusMinutes(duration);
+            long bookerId = booker(random, itemOwners[(int) itemId]);
+            String status = status(random, start, end);
+            boolean commented = random.nextDouble() < config.commentRate();
+            LocalDateTime commentCreated = end.plusMinutes(randomMinutes(random, 3 * MINUTES_PER_DAY));
+
+            consumer.accept(itemId, bookerId, start, end, status,
+                    commented && "APPROVED".equals(status) && commentCreated.isBefore(config.baseTime()) ? commentCreated : null);
+        }
+    }
+
+    private long booker(Random random, int ownerId) {
+        long bookerId = (long) (bookerActivity.sample(random) - 1) * userStep % config.users() + 1;
+        return bookerId == ownerId ? bookerId % config.users() + 1 : bookerId;
+    }
+
+    private String status(Random random, LocalDateTime start, LocalDateTime end) {
+        int roll = random.nextInt(100);
+        if (end.isBefore(config.baseTime())) {
+            return roll < 85 ? "APPROVED" : roll < 95 ? "REJECTED" : "CANCELED";
+        }
+        if (start.isAfter(config.baseTime())) {
+            return roll < 60 ? "APPROVED" : "WAITING";
+        }
+        return "APPROVED";
+    }
+
+    /**
+     * Сдвигает последовательности Hibernate (шаг 50) и identity-столбцы за максимальный id,
+     * чтобы приложение продолжило вставку без конфликтов первичного ключа.
+     */
+    private void resetSequences() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            for (String table : new String[]{"users", "requests", "items", "bookings", "comments"}) {
+                long maxId = maxId(statement, table);
+                if (maxId == 0) {
+                    continue;
+                }
+
+                boolean sequence = !"requests".equals(table) && !"comments".equals(table);
+                if (postgres) {
+                    statement.execute("SELECT setval(pg_get_serial_sequence('" + table + "', 'id'), " + maxId + ")");
+                    if (sequence) {
+                        statement.execute("SELECT setval('" + table + "_seq', " + maxId + ")");
+                    }
+                } else {
+                    statement.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + (maxId + 1));
+                    if (sequence) {
+                        statement.execute("ALTER SEQUENCE " + table + "_seq RESTART WITH " + (maxId + 50));
+                    }
+                }
+            }
+        }
+        connection.commit();
+    }
+
+    private RowWriter writer(String table, String[] columns) throws SQLException {
+        return postgres
+                ? new PgCopyRowWriter(connection, table, columns, config.batchSize())
+                : new JdbcBatchRowWriter(connection, table, columns, config.batchSize());
+    }
+
+    private static long maxId(Statement statement, String table) throws SQLException {
+        try (ResultSet resultSet = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM " + table)) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+    private static long randomMinutes(Random random, long bound) {
+        return bound <= 0 ? 0 : (long) (random.nextDouble() * bound);
+    }
+
+    /**
+     * Шаг, взаимно простой с n: ранг k отображается в id (k - 1) * step mod n + 1, так что популярные
+     * вещи и активные арендаторы разбросаны по всему диапазону id, а не собраны в его начале.
+     */
+    private static int coprimeStep(int n) {
+        int step = (int) (n * 0.618) | 1;
+        while (gcd(step, n) != 1) {
+            step += 2;
+        }
+        return step;
+    }
+
+    private static int gcd(int a, int b) {
+        return b == 0 ? a : gcd(b, a % b);
+    }
+
+    @FunctionalInterface
+    private interface BookingConsumer {
+        void accept(long itemId, long bookerId, LocalDateTime start, LocalDateTime end, String status,
+                    LocalDateTime commentCreated) throws SQLException;
+    }
+
+    private static void report(String table, long rows, long started) {
+        System.out.printf("%-9s %,12d строк, %.1f с от начала%n", table, rows, (System.nanoTime() - started) / 1_000_000_000.0);
+    }
+}
@@ -0,0 +1,50 @@
+package ru.practicum.shareit.loadtest.dataset;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * INSERT пакетами по batchSize строк, фиксация после каждого пакета.
+ */
+public class JdbcBatchRowWriter implements RowWriter {
+    private final Connection connection;
+    private final PreparedStatement statement;
+    private final int batchSize;
+    private long count;
+
+    public JdbcBatchRowWriter(Connection connection, String table, String[] columns, int batchSize) throws SQLException {
+        this.connection = connection;
+        this.batchSize = batchSize;
+        this.statement = connection.prepareStatement("INSERT INTO " + table + " (" + String.join(", ", columns)
+                + ") VALUES (" + "?, ".repeat(columns.length - 1) + "?)");
+    }
+
+    @Override
+    public void write(Object... values) throws SQLException {
+        for (int i = 0; i < values.length; i++) {
+            statement.setObject(i + 1, values[i] instanceof LocalDateTime time ? Timestamp.valueOf(time) : values[i]);
+        }
+        statement.addBatch();
+
+        if (++count % batchSize == 0) {
+            statement.executeBatch();
+            connection.commit();
+        }
+    }
+
+    @Override
+    public long count() {
+        return count;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        try (statement) {
+            statement.executeBatch();
+            connection.commit();
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.loadtest.dataset;
+
+import java.sql.SQLException;
+
+/**
+ * Построчная загрузка одной таблицы: JDBC-пакетами или через COPY в Postgres.
+ */
+public interface RowWriter extends AutoCloseable {
+    void write(Object... values) throws SQLException;
+
+    long count();
+
+    @Override
+    void close() throws SQLException;
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.batch;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchResult {
+    private int index;
+    private Long id;
+    private String error;
+
+    public static BatchResult success(int index, Long id) {
+        return new BatchResult(index, id, null);
+    }
+
+    public static BatchResult failure(int index, String error) {
+        return new BatchResult(index, null, error);
+    }
+}
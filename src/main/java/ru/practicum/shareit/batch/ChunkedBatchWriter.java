@@ -0,0 +1,95 @@
+package ru.practicum.shareit.batch;
+
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.exception.DuplicatedDataException;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Пакетная запись строк частями по shareit.batch.chunk-size, каждая часть в своей транзакции.
+ * Валидатор возвращает для строк части сообщения об ошибке (null — строка корректна), запись
+ * получает только корректные строки и возвращает их id. Если запись части падает, она
+ * откатывается и строки повторяются по одной, чтобы ошибка досталась только виновной строке.
+ * Поэтому действия вне БД (индексация, кэши) запись регистрирует на afterCommit транзакции части.
+ */
+@Slf4j
+@Component
+public class ChunkedBatchWriter {
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final int chunkSize;
+
+    public ChunkedBatchWriter(TransactionTemplate transactionTemplate,
+                              EntityManager entityManager,
+                              @Value("${shareit.batch.chunk-size:500}") int chunkSize) {
+        this.transactionTemplate = transactionTemplate;
+        this.entityManager = entityManager;
+        this.chunkSize = chunkSize;
+    }
+
+    public <T> List<BatchResult> write(List<T> rows, Function<List<T>, List<String>> validator,
+                                       Function<List<T>, List<Long>> writer) {
+        List<BatchResult> results = new ArrayList<>(rows.size());
+
+        for (int from = 0; from < rows.size(); from += chunkSize) {
+            List<T> chunk = rows.subList(from, Math.min(from + chunkSize, rows.size()));
+
+            try {
+                results.addAll(writeChunk(from, chunk, validator, writer));
+            } catch (RuntimeException e) {
+                log.debug("Часть пакета с позиции {} не записана, повтор по одной строке", from, e);
+                for (int i = 0; i < chunk.size(); i++) {
+                    results.add(writeSingle(from + i, chunk.get(i), validator, writer));
+                }
+            }
+        }
+
+        return results;
+    }
+
+    private <T> List<BatchResult> writeChunk(int offset, List<T> chunk, Function<List<T>, List<String>> validator,
+                                             Function<List<T>, List<Long>> writer) {
+        return transactionTemplate.execute(status -> {
+            List<String> errors = validator.apply(chunk);
+            List<T> valid = new ArrayList<>(chunk.size());
+            for (int i = 0; i < chunk.size(); i++) {
+                if (errors.get(i) == null) {
+                    valid.add(chunk.get(i));
+                }
+            }
+
+            List<Long> ids = valid.isEmpty() ? List.of() : writer.apply(valid);
+            entityManager.flush();
+            entityManager.clear();
+
+            List<BatchResult> results = new ArrayList<>(chunk.size());
+            int written = 0;
+            for (int i = 0; i < chunk.size(); i++) {
+                results.add(errors.get(i) == null
+                        ? BatchResult.success(offset + i, ids.get(written++))
+                        : BatchResult.failure(offset + i, errors.get(i)));
+            }
+            return results;
+        });
+    }
+
+    private <T> BatchResult writeSingle(int index, T row, Function<List<T>, List<String>> validator,
+                                        Function<List<T>, List<Long>> writer) {
+        try {
+            return writeChunk(index, List.of(row), validator, writer).getFirst();
+        } catch (ValidationException | NotFoundException | DuplicatedDataException e) {
+            return BatchResult.failure(index, e.getMessage());
+        } catch (RuntimeException e) {
+            log.warn("Строка пакета {} не записана", index, e);
+            return BatchResult.failure(index, "Не удалось сохранить запись");
+        }
+    }
+}
@@ -1,21 +1,33 @@
 package ru.practicum.shareit.booking;
 
+import io.micrometer.core.annotation.Timed;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.batch.BatchResult;
+import ru.practicum.shareit.booking.dto.BookingDecision;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingRequest;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.export.NdjsonExporter;
+import ru.practicum.shareit.pagination.KeysetPage;
 
+import java.io.IOException;
 import java.util.List;
 
+@Timed("shareit.controller")
 @RestController
 @RequiredArgsConstructor
 @RequestMapping(path = "/bookings")
 @Validated
 public class BookingController {
     private final BookingService bookingService;
+    private final NdjsonExporter ndjsonExporter;
 
     @GetMapping("/{bookingId}")
     public BookingDto getBooking(@PathVariable("bookingId") Long bookingId, @RequestHeader("X-Sharer-User-Id") Long userId) {
@@ -23,13 +35,29 @@ public class BookingController {
     }
 
     @GetMapping
-    public List<BookingDto> getAllUserBookingByState(@RequestHeader("X-Sharer-User-Id") Long userId, @RequestParam(defaultValue = "ALL") StateBooking state) {
-        return bookingService.getAllUserBookingByState(userId, state);
+    public List<BookingDto> getAllUserBookingByState(@RequestHeader("X-Sharer-User-Id") Long userId, @RequestParam(defaultValue = "ALL") StateBooking state,
+                                                     @RequestParam(required = false) Long afterId,
+                                                     @RequestParam(defaultValue = "100") @Positive @Max(1000) Integer size,
+                                                     HttpServletResponse response) {
+        return KeysetPage.of(bookingService.getAllUserBookingByState(userId, state, afterId, size), size, BookingDto::getId, response);
     }
 
     @GetMapping("/owner")
-    public List<BookingDto> getAllUserBooking(@RequestHeader("X-Sharer-User-Id") Long userId, @RequestParam(defaultValue = "ALL") StateBooking state) {
-        return bookingService.getAllUserBookingByState(userId, state);
+    public List<BookingDto> getAllUserBooking(@RequestHeader("X-Sharer-User-Id") Long userId, @RequestParam(defaultValue = "ALL") StateBooking state,
+                                              @RequestParam(required = false) Long afterId,
+                                              @RequestParam(defaultValue = "100") @Positive @Max(1000) Integer size,
+                                              HttpServletResponse response) {
+        return KeysetPage.of(bookingService.getAllOwnerBookingByState(userId, state, afterId, size), size, BookingDto::getId, response);
+    }
+
+    @GetMapping("/export")
+    public void exportUserBookings(@RequestHeader("X-Sharer-User-Id") Long userId, HttpServletResponse response) throws IOException {
+        ndjsonExporter.<BookingDto>write(response, sink -> bookingService.exportUserBookings(userId, sink));
+    }
+
+    @GetMapping("/owner/export")
+    public void exportOwnerBookings(@RequestHeader("X-Sharer-User-Id") Long userId, HttpServletResponse response) throws IOException {
+        ndjsonExporter.<BookingDto>write(response, sink -> bookingService.exportOwnerBookings(userId, sink));
     }
 
     @PostMapping
@@ -42,4 +70,10 @@ public class BookingController {
                                    @RequestParam("approved") Boolean approved) {
         return bookingService.approvedBooking(bookingId, userId, approved);
     }
+
+    @PatchMapping("/batch")
+    public List<BatchResult> decideBookings(@RequestBody @Size(max = 10000) List<BookingDecision> decisions,
+                                            @RequestHeader("X-Sharer-User-Id") Long userId) {
+        return bookingService.decideBookings(decisions, userId);
+    }
 }
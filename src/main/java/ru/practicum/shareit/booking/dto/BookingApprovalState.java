@@ -0,0 +1,8 @@
+package ru.practicum.shareit.booking.dto;
+
+import ru.practicum.shareit.booking.Status;
+
+import java.time.LocalDateTime;
+
+public record BookingApprovalState(Long id, Status status, Long ownerId, Long itemId, LocalDateTime start, LocalDateTime end) {
+}
@@ -0,0 +1,7 @@
+package ru.practicum.shareit.booking.lock;
+
+import java.util.function.Supplier;
+
+public interface ItemLockService {
+    <T> T executeLocked(Long itemId, Supplier<T> action);
+}
@@ -0,0 +1,61 @@
+package ru.practicum.shareit.booking.lock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Сериализует операции над одной вещью и только над ней.
+ * Внутри JVM используется таблица из stripes блокировок, выбираемых по хэшу id вещи.
+ * Действие выполняется в собственной транзакции, которая фиксируется до снятия блокировки,
+ * поэтому вызывающий код не должен открывать транзакцию сам.
+ * Если включены advisory-блокировки, транзакция сначала берёт pg_advisory_xact_lock(itemId),
+ * что упорядочивает операции над вещью между узлами; блокировка снимается при завершении транзакции.
+ */
+@Service
+public class ItemLockServiceImpl implements ItemLockService {
+    private final ReentrantLock[] stripes;
+    private final boolean advisoryLocks;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+
+    public ItemLockServiceImpl(@Value("${shareit.booking.lock.stripes:1024}") int stripes,
+                               @Value("${shareit.booking.lock.advisory:false}") boolean advisoryLocks,
+                               TransactionTemplate transactionTemplate,
+                               JdbcTemplate jdbcTemplate) {
+        int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+        this.advisoryLocks = advisoryLocks;
+        this.transactionTemplate = transactionTemplate;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public <T> T executeLocked(Long itemId, Supplier<T> action) {
+        ReentrantLock lock = stripeFor(itemId);
+        lock.lock();
+        try {
+            return transactionTemplate.execute(status -> {
+                if (advisoryLocks) {
+                    jdbcTemplate.query("SELECT pg_advisory_xact_lock(?)", rs -> null, itemId);
+                }
+                return action.get();
+            });
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private ReentrantLock stripeFor(Long itemId) {
+        int hash = Long.hashCode(itemId);
+        hash ^= hash >>> 16;
+        return stripes[hash & (stripes.length - 1)];
+    }
+}
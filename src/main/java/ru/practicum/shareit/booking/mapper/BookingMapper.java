@@ -8,17 +8,24 @@ import ru.practicum.shareit.booking.dto.BookingRequest;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
 
+import java.util.List;
+
 @RequiredArgsConstructor
 public class BookingMapper {
     public static BookingDto toBookingDto(Booking booking) {
+        return toBookingDto(booking, UserMapper.mapToUserDto(booking.getBooker()));
+    }
+
+    public static BookingDto toBookingDto(Booking booking, UserDto booker) {
         BookingDto bookingDto = new BookingDto();
         bookingDto.setId(booking.getId());
         bookingDto.setStart(booking.getStart());
         bookingDto.setEnd(booking.getEnd());
-        bookingDto.setItem(ItemMapper.toItemDto(booking.getItem()));
-        bookingDto.setBooker(UserMapper.mapToUserDto(booking.getBooker()));
+        bookingDto.setItem(ItemMapper.toItemDto(booking.getItem(), List.of()));
+        bookingDto.setBooker(booker);
         bookingDto.setStatus(booking.getStatus());
         return bookingDto;
     }
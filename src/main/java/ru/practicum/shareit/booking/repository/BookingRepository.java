@@ -1,15 +1,161 @@
 package ru.practicum.shareit.booking.repository;
 
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.dto.BookingApprovalState;
+import ru.practicum.shareit.item.dto.BookedSlot;
+import ru.practicum.shareit.item.dto.ItemBookingDates;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
+    String PAGE = " AND (b.start < :cursorStart OR (b.start = :cursorStart AND b.id < :cursorId)) ORDER BY b.start DESC, b.id DESC";
+
+    boolean existsByBookerIdAndItemIdAndStatusAndEndBefore(Long bookerId, Long itemId, Status status, LocalDateTime end);
+
+    @Query("SELECT b.end FROM Booking b WHERE b.item.id = :itemId AND b.status = :status AND b.start <= :end ORDER BY b.start DESC")
+    List<LocalDateTime> findLatestEndStartedBefore(@Param("itemId") Long itemId, @Param("status") Status status,
+                                                   @Param("end") LocalDateTime end, Limit limit);
+
+    /**
+     * Читает одну строку индекса: последнее одобренное бронирование вещи, начавшееся не позже end,
+     * и сравнивает его окончание со start.
+     * Инвариант: одобренные бронирования одной вещи не пересекаются между собой. Только при нём
+     * с окном [start, end] может пересечься лишь это последнее бронирование. Атомарно инвариант
+     * обеспечивает только ограничение ex_bookings_approved_overlap в Postgres; на H2 параллельные
+     * одобрения могут его нарушить (см. {@link #approveIfWaiting}), и тогда проверка может пропустить
+     * пересечение с более ранним, но более длинным бронированием.
+     */
+    default boolean existsApprovedOverlap(Long itemId, LocalDateTime start, LocalDateTime end) {
+        List<LocalDateTime> ends = findLatestEndStartedBefore(itemId, Status.APPROVED, end, Limit.of(1));
+        return !ends.isEmpty() && !ends.getFirst().isBefore(start);
+    }
+
+    @Query("SELECT new ru.practicum.shareit.item.dto.ItemBookingDates(b.item.id, " +
+            "MAX(CASE WHEN b.start <= :now THEN b.start END), MIN(CASE WHEN b.start > :now THEN b.start END)) " +
+            "FROM Booking b WHERE b.item.id IN :itemIds AND b.status = :status GROUP BY b.item.id")
+    List<ItemBookingDates> findBookingDates(@Param("itemIds") Collection<Long> itemIds, @Param("status") Status status,
+                                            @Param("now") LocalDateTime now);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Optional<Booking> findWithItemAndBookerById(Long id);
+
+    /**
+     * Бронирования вещей, пересекающиеся с окном [from, to], по вещи и началу. Индекс
+     * (item_id, status, end_date) ограничивает чтение бронированиями, закончившимися не раньше from,
+     * поэтому история вещи до окна не читается.
+     */
+    @Query("SELECT new ru.practicum.shareit.item.dto.BookedSlot(b.item.id, b.start, b.end) FROM Booking b " +
+            "WHERE b.item.id IN :itemIds AND b.status IN :statuses AND b.end >= :from AND b.start <= :to " +
+            "ORDER BY b.item.id, b.start")
+    List<BookedSlot> findBookedSlots(@Param("itemIds") Collection<Long> itemIds, @Param("statuses") Collection<Status> statuses,
+                                     @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    /**
+     * Одобрение одним условным UPDATE: бронирования ждут решения, вещи принадлежат userId и у вещи нет
+     * одобренного бронирования, пересекающегося по времени. Возвращает число изменённых строк.
+     * Повторное или параллельное одобрение того же бронирования не пройдёт условие по статусу. Параллельные
+     * одобрения разных пересекающихся бронирований NOT EXISTS не видят друг друга: их отсекает только
+     * ограничение ex_bookings_approved_overlap в Postgres, на H2 непересечение не гарантировано.
+     * Бронирования, одобряемые одним вызовом, друг друга не видят: их взаимные пересечения проверяет вызывающий.
+     */
+    @Modifying
+    @Query("UPDATE Booking b SET b.status = ru.practicum.shareit.booking.Status.APPROVED " +
+            "WHERE b.id IN :ids AND b.status = ru.practicum.shareit.booking.Status.WAITING " +
+            "AND b.item.id IN (SELECT i.id FROM Item i WHERE i.owner.id = :userId) " +
+            "AND NOT EXISTS (SELECT o.id FROM Booking o WHERE o.item.id = b.item.id " +
+            "AND o.status = ru.practicum.shareit.booking.Status.APPROVED AND o.start <= b.end AND o.end >= b.start)")
+    int approveIfWaiting(@Param("ids") Collection<Long> ids, @Param("userId") Long userId);
+
+    @Modifying
+    @Query("UPDATE Booking b SET b.status = ru.practicum.shareit.booking.Status.REJECTED " +
+            "WHERE b.id IN :ids AND b.status = ru.practicum.shareit.booking.Status.WAITING " +
+            "AND b.item.id IN (SELECT i.id FROM Item i WHERE i.owner.id = :userId)")
+    int rejectIfWaiting(@Param("ids") Collection<Long> ids, @Param("userId") Long userId);
+
+    @Query("SELECT new ru.practicum.shareit.booking.dto.BookingApprovalState(b.id, b.status, b.item.owner.id, b.item.id, b.start, b.end) " +
+            "FROM Booking b WHERE b.id IN :ids")
+    List<BookingApprovalState> findApprovalStates(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT b.id FROM Booking b WHERE b.id IN :ids AND EXISTS (SELECT o.id FROM Booking o WHERE o.item.id = b.item.id " +
+            "AND o.status = ru.practicum.shareit.booking.Status.APPROVED AND o.start <= b.end AND o.end >= b.start)")
+    Set<Long> findIdsOverlappingApproved(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT b.start FROM Booking b WHERE b.id = :id")
+    Optional<LocalDateTime> findStartById(@Param("id") Long id);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("SELECT b FROM Booking b WHERE b.booker.id = :userId" + PAGE)
+    List<Booking> findBookerPage(@Param("userId") Long userId, @Param("cursorStart") LocalDateTime cursorStart,
+                                 @Param("cursorId") long cursorId, Limit limit);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("SELECT b FROM Booking b WHERE b.booker.id = :userId AND b.start <= :now AND b.end >= :now" + PAGE)
+    List<Booking> findBookerCurrentPage(@Param("userId") Long userId, @Param("now") LocalDateTime now,
+                                        @Param("cursorStart") LocalDateTime cursorStart, @Param("cursorId") long cursorId, Limit limit);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("SELECT b FROM Booking b WHERE b.booker.id = :userId AND b.end < :now" + PAGE)
+    List<Booking> findBookerPastPage(@Param("userId") Long userId, @Param("now") LocalDateTime now,
+                                     @Param("cursorStart") LocalDateTime cursorStart, @Param("cursorId") long cursorId, Limit limit);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("SELECT b FROM Booking b WHERE b.booker.id = :userId AND b.start > :now" + PAGE)
+    List<Booking> findBookerFuturePage(@Param("userId") Long userId, @Param("now") LocalDateTime now,
+                                       @Param("cursorStart") LocalDateTime cursorStart, @Param("cursorId") long cursorId, Limit limit);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("SELECT b FROM Booking b WHERE b.booker.id = :userId AND b.status = :status" + PAGE)
+    List<Booking> findBookerPageByStatus(@Param("userId") Long userId, @Param("status") Status status,
+                                         @Param("cursorStart") LocalDateTime cursorStart, @Param("cursorId") long cursorId, Limit limit);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("SELECT b FROM Booking b WHERE b.item.owner.id = :userId" + PAGE)
+    List<Booking> findOwnerPage(@Param("userId") Long userId, @Param("cursorStart") LocalDateTime cursorStart,
+                                @Param("cursorId") long cursorId, Limit limit);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("SELECT b FROM Booking b WHERE b.item.owner.id = :userId AND b.start <= :now AND b.end >= :now" + PAGE)
+    List<Booking> findOwnerCurrentPage(@Param("userId") Long userId, @Param("now") LocalDateTime now,
+                                       @Param("cursorStart") LocalDateTime cursorStart, @Param("cursorId") long cursorId, Limit limit);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("SELECT b FROM Booking b WHERE b.item.owner.id = :userId AND b.end < :now" + PAGE)
+    List<Booking> findOwnerPastPage(@Param("userId") Long userId, @Param("now") LocalDateTime now,
+                                    @Param("cursorStart") LocalDateTime cursorStart, @Param("cursorId") long cursorId, Limit limit);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("SELECT b FROM Booking b WHERE b.item.owner.id = :userId AND b.start > :now" + PAGE)
+    List<Booking> findOwnerFuturePage(@Param("userId") Long userId, @Param("now") LocalDateTime now,
+                                      @Param("cursorStart") LocalDateTime cursorStart, @Param("cursorId") long cursorId, Limit limit);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("SELECT b FROM Booking b WHERE b.item.owner.id = :userId AND b.status = :status" + PAGE)
+    List<Booking> findOwnerPageByStatus(@Param("userId") Long userId, @Param("status") Status status,
+                                        @Param("cursorStart") LocalDateTime cursorStart, @Param("cursorId") long cursorId, Limit limit);
 
-    List<Booking> findAllByBookerIdOrderByStartDesc(@Param("bookerId") Long bookerId);
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT b FROM Booking b WHERE b.booker.id = :userId ORDER BY b.start DESC, b.id DESC")
+    Stream<Booking> streamByBookerId(@Param("userId") Long userId);
 
-    List<Booking> findAllByStatusAndItemId(Status status, Long itemId);
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT b FROM Booking b WHERE b.item.owner.id = :userId ORDER BY b.start DESC, b.id DESC")
+    Stream<Booking> streamByOwnerId(@Param("userId") Long userId);
 }
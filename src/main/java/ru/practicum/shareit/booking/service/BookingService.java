@@ -1,17 +1,28 @@
 package ru.practicum.shareit.booking.service;
 
+import ru.practicum.shareit.batch.BatchResult;
 import ru.practicum.shareit.booking.StateBooking;
+import ru.practicum.shareit.booking.dto.BookingDecision;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingRequest;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface BookingService {
     BookingDto createBooking(BookingRequest booking, Long userId);
 
     BookingDto approvedBooking(Long bookingId, Long userId, Boolean approved);
 
+    List<BatchResult> decideBookings(List<BookingDecision> decisions, Long userId);
+
     BookingDto getBooking(Long bookingId, Long userId);
 
-    List<BookingDto> getAllUserBookingByState(Long userId, StateBooking state);
+    List<BookingDto> getAllUserBookingByState(Long userId, StateBooking state, Long afterId, Integer size);
+
+    List<BookingDto> getAllOwnerBookingByState(Long userId, StateBooking state, Long afterId, Integer size);
+
+    void exportUserBookings(Long userId, Consumer<BookingDto> sink);
+
+    void exportOwnerBookings(Long userId, Consumer<BookingDto> sink);
 }
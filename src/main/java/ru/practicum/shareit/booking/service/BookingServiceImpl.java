@@ -1,36 +1,196 @@
 package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.batch.BatchResult;
+import ru.practicum.shareit.batch.ChunkedBatchWriter;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.StateBooking;
 import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.dto.BookingApprovalState;
+import ru.practicum.shareit.booking.dto.BookingDecision;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingRequest;
+import ru.practicum.shareit.booking.lock.ItemLockService;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.event.DomainEventPublisher;
+import ru.practicum.shareit.event.EventType;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.export.EntityStreamExporter;
+import ru.practicum.shareit.item.cache.ItemCardCache;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
-import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.cache.UserCache;
+import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class BookingServiceImpl implements BookingService {
+    private static final LocalDateTime FIRST_PAGE_START = LocalDateTime.of(9999, 12, 31, 0, 0);
+
     private final BookingRepository bookingRepository;
     private final UserRepository userRepository;
+    private final UserCache userCache;
     private final ItemRepository itemRepository;
+    private final ItemCardCache itemCardCache;
+    private final ItemLockService itemLockService;
+    private final EntityStreamExporter entityStreamExporter;
+    private final ChunkedBatchWriter batchWriter;
+    private final DomainEventPublisher eventPublisher;
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public BookingDto createBooking(BookingRequest request, Long userId) {
-        User booker = userRepository.findById(userId).orElseThrow(() -> new NotFoundException("Пользователь не найден"));
+        if (request.getItemId() == null) {
+            throw new ValidationException("Не указана вещь для бронирования");
+        }
+
+        return itemLockService.executeLocked(request.getItemId(), () -> create(request, userId));
+    }
+
+    /**
+     * Смена статуса - один условный UPDATE без блокировки вещи. Если ни одна строка не изменилась,
+     * причина выясняется отдельным запросом только на этом, неуспешном, пути. Непересечение
+     * одобренных бронирований при параллельных одобрениях гарантирует только Postgres
+     * (см. {@link BookingRepository#approveIfWaiting}).
+     */
+    @Override
+    @Transactional
+    public BookingDto approvedBooking(Long bookingId, Long userId, Boolean approved) {
+        int updated;
+        try {
+            updated = approved
+                    ? bookingRepository.approveIfWaiting(List.of(bookingId), userId)
+                    : bookingRepository.rejectIfWaiting(List.of(bookingId), userId);
+        } catch (DataIntegrityViolationException e) {
+            throw new ValidationException("Время бронирования пересекается с уже существующим бронированием");
+        }
+        if (updated == 0) {
+            throw approvalFailure(bookingId, userId);
+        }
+
+        Booking booking = bookingRepository.findWithItemAndBookerById(bookingId).orElseThrow(() -> new NotFoundException("Бронирование не найдено"));
+        itemCardCache.invalidate(booking.getItem().getId());
+        eventPublisher.publish(approved ? EventType.BOOKING_APPROVED : EventType.BOOKING_REJECTED, bookingId,
+                booking.getItem().getId(), userId);
+        return BookingMapper.toBookingDto(booking);
+    }
+
+    /**
+     * Пакетное одобрение и отклонение частями: на каждую часть один запрос состояний, один запрос
+     * пересечений с уже одобренными бронированиями и по одному UPDATE на одобрение и отклонение.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<BatchResult> decideBookings(List<BookingDecision> decisions, Long userId) {
+        userCache.getUser(userId);
+        Map<Long, Long> itemIds = new HashMap<>();
+
+        return batchWriter.write(decisions, chunk -> validateDecisions(chunk, userId, itemIds),
+                chunk -> applyDecisions(chunk, userId, itemIds));
+    }
+
+    private List<String> validateDecisions(List<BookingDecision> chunk, Long userId, Map<Long, Long> itemIds) {
+        Set<Long> ids = chunk.stream().map(BookingDecision::getBookingId).filter(Objects::nonNull).collect(Collectors.toSet());
+        Set<Long> approvals = chunk.stream()
+                .filter(decision -> decision.getBookingId() != null && Boolean.TRUE.equals(decision.getApproved()))
+                .map(BookingDecision::getBookingId)
+                .collect(Collectors.toSet());
+        Map<Long, BookingApprovalState> states = ids.isEmpty() ? Map.of() : bookingRepository.findApprovalStates(ids).stream()
+                .collect(Collectors.toMap(BookingApprovalState::id, Function.identity()));
+        Set<Long> overlapping = approvals.isEmpty() ? Set.of() : bookingRepository.findIdsOverlappingApproved(approvals);
+
+        // одобряемые в пакете бронирования вещи: начало -> окончание, между собой не пересекаются
+        Map<Long, NavigableMap<LocalDateTime, LocalDateTime>> accepted = new HashMap<>();
+        Set<Long> seen = new HashSet<>();
+        List<String> errors = new ArrayList<>(chunk.size());
+
+        for (BookingDecision decision : chunk) {
+            BookingApprovalState state = states.get(decision.getBookingId());
+
+            if (decision.getBookingId() == null) {
+                errors.add("Не указано бронирование");
+            } else if (decision.getApproved() == null) {
+                errors.add("Не указано решение по бронированию");
+            } else if (!seen.add(decision.getBookingId())) {
+                errors.add("Бронирование указано в пакете несколько раз");
+            } else if (state == null) {
+                errors.add("Бронирование не найдено");
+            } else if (!state.ownerId().equals(userId)) {
+                errors.add("Нет доступа к редактированию статуса бронирования");
+            } else if (state.status() != Status.WAITING) {
+                errors.add("Бронирование еще не одобрено");
+            } else if (decision.getApproved() && (overlapping.contains(state.id()) || overlaps(accepted.get(state.itemId()), state))) {
+                errors.add("Время бронирования пересекается с уже существующим бронированием");
+            } else {
+                errors.add(null);
+                itemIds.put(state.id(), state.itemId());
+                if (decision.getApproved()) {
+                    accepted.computeIfAbsent(state.itemId(), itemId -> new TreeMap<>()).put(state.start(), state.end());
+                }
+            }
+        }
+
+        return errors;
+    }
+
+    private static boolean overlaps(NavigableMap<LocalDateTime, LocalDateTime> accepted, BookingApprovalState state) {
+        if (accepted == null) {
+            return false;
+        }
+        Map.Entry<LocalDateTime, LocalDateTime> latest = accepted.floorEntry(state.end());
+        return latest != null && !latest.getValue().isBefore(state.start());
+    }
+
+    private List<Long> applyDecisions(List<BookingDecision> chunk, Long userId, Map<Long, Long> itemIds) {
+        List<Long> approve = chunk.stream().filter(BookingDecision::getApproved).map(BookingDecision::getBookingId).toList();
+        List<Long> reject = chunk.stream().filter(decision -> !decision.getApproved()).map(BookingDecision::getBookingId).toList();
+
+        int updated;
+        try {
+            updated = (approve.isEmpty() ? 0 : bookingRepository.approveIfWaiting(approve, userId))
+                    + (reject.isEmpty() ? 0 : bookingRepository.rejectIfWaiting(reject, userId));
+        } catch (DataIntegrityViolationException e) {
+            throw new ValidationException("Время бронирования пересекается с уже существующим бронированием");
+        }
+        // строки поменялись после проверки: часть откатится и повторится по одной строке
+        if (updated != chunk.size()) {
+            throw new ValidationException("Бронирование изменилось во время обработки");
+        }
+
+        itemCardCache.invalidateAll(chunk.stream().map(decision -> itemIds.get(decision.getBookingId())).collect(Collectors.toSet()));
+        for (BookingDecision decision : chunk) {
+            eventPublisher.publish(decision.getApproved() ? EventType.BOOKING_APPROVED : EventType.BOOKING_REJECTED,
+                    decision.getBookingId(), itemIds.get(decision.getBookingId()), userId);
+        }
+        return chunk.stream().map(BookingDecision::getBookingId).toList();
+    }
+
+    private BookingDto create(BookingRequest request, Long userId) {
+        UserDto booker = userCache.getUser(userId);
         Item item = itemRepository.findById(request.getItemId()).orElseThrow(() -> new NotFoundException("Объект не найден"));
-        List<Booking> approvedBookings = bookingRepository.findAllByStatusAndItemId(Status.APPROVED, item.getId());
 
         if (!item.getAvailable()) {
             throw new ValidationException("Вещь не доступна для бронирования");
@@ -40,49 +200,40 @@ public class BookingServiceImpl implements BookingService {
             throw new ValidationException("Дата начала бронирования не может быть позже или равна дате окончания");
         }
 
-        for (Booking booking : approvedBookings) {
-            if (isTimeOverlap(request.getStart(), request.getEnd(), booking.getStart(), booking.getEnd())) {
-                throw new ValidationException("Время бронирования пересекается с уже существующим бронированием");
-            }
+        if (bookingRepository.existsApprovedOverlap(item.getId(), request.getStart(), request.getEnd())) {
+            throw new ValidationException("Время бронирования пересекается с уже существующим бронированием");
         }
 
-        Booking booking = BookingMapper.toBookingFromRequest(request, item, booker);
+        Booking booking = BookingMapper.toBookingFromRequest(request, item, userRepository.getReferenceById(userId));
         bookingRepository.save(booking);
-        return BookingMapper.toBookingDto(booking);
-    }
-
-    private boolean isTimeOverlap(LocalDateTime newStart, LocalDateTime newEnd, LocalDateTime existStart, LocalDateTime existEnd) {
-        return !(newEnd.isBefore(existStart) || newStart.isAfter(existEnd));
+        eventPublisher.publish(EventType.BOOKING_CREATED, booking.getId(), item.getId(), userId);
+        return BookingMapper.toBookingDto(booking, booker);
     }
 
-    @Override
-    public BookingDto approvedBooking(Long bookingId, Long userId, Boolean approved) {
-        Booking booking = bookingRepository.findById(bookingId).orElseThrow(() -> new NotFoundException("Бронирование не найдено"));
-        User owner = userRepository.findById(userId).orElseThrow(() -> new ValidationException("Пользователь не найден"));
+    private RuntimeException approvalFailure(Long bookingId, Long userId) {
+        BookingApprovalState state = bookingRepository.findApprovalStates(List.of(bookingId)).stream().findFirst().orElse(null);
 
-        if (!booking.getItem().getOwner().equals(owner)) {
-            throw new ValidationException("Нет доступа к редактированию статуса бронирования");
+        if (state == null) {
+            return new NotFoundException("Бронирование не найдено");
         }
-
-        if (booking.getStatus() != Status.WAITING) {
-            throw new ValidationException("Бронирование еще не одобрено");
+        if (!userCache.exists(userId)) {
+            return new ValidationException("Пользователь не найден");
         }
-
-        if (approved) {
-            booking.setStatus(Status.APPROVED);
-        } else {
-            booking.setStatus(Status.REJECTED);
+        if (!state.ownerId().equals(userId)) {
+            return new ValidationException("Нет доступа к редактированию статуса бронирования");
         }
-        bookingRepository.save(booking);
-        return BookingMapper.toBookingDto(booking);
+        if (state.status() != Status.WAITING) {
+            return new ValidationException("Бронирование еще не одобрено");
+        }
+        return new ValidationException("Время бронирования пересекается с уже существующим бронированием");
     }
 
     @Override
     public BookingDto getBooking(Long bookingId, Long userId) {
-        Booking booking = bookingRepository.findById(bookingId).orElseThrow(() -> new NotFoundException("Бронирование не найдено"));
-        User user = userRepository.findById(userId).orElseThrow(() -> new NotFoundException("Пользователь не найден"));
+        Booking booking = bookingRepository.findWithItemAndBookerById(bookingId).orElseThrow(() -> new NotFoundException("Бронирование не найдено"));
+        userCache.getUser(userId);
 
-        if (!booking.getBooker().equals(user) && !booking.getItem().getOwner().equals(user)) {
+        if (!booking.getBooker().getId().equals(userId) && !booking.getItem().getOwner().getId().equals(userId)) {
             throw new ValidationException("Нет доступа к информации по бронированию");
         }
 
@@ -90,12 +241,64 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
-    public List<BookingDto> getAllUserBookingByState(Long userId, StateBooking state) {
-        User user = userRepository.findById(userId).orElseThrow(() -> new NotFoundException("Пользователь не найден"));
-        List<Booking> bookings = bookingRepository.findAllByBookerIdOrderByStartDesc(userId);
+    public List<BookingDto> getAllUserBookingByState(Long userId, StateBooking state, Long afterId, Integer size) {
+        userCache.getUser(userId);
+        LocalDateTime cursorStart = cursorStart(afterId);
+        long cursorId = afterId == null ? Long.MAX_VALUE : afterId;
+        LocalDateTime now = LocalDateTime.now();
+        Limit limit = Limit.of(size);
+
+        List<Booking> bookings = switch (state) {
+            case ALL -> bookingRepository.findBookerPage(userId, cursorStart, cursorId, limit);
+            case CURRENT -> bookingRepository.findBookerCurrentPage(userId, now, cursorStart, cursorId, limit);
+            case PAST -> bookingRepository.findBookerPastPage(userId, now, cursorStart, cursorId, limit);
+            case FUTURE -> bookingRepository.findBookerFuturePage(userId, now, cursorStart, cursorId, limit);
+            case WAITING -> bookingRepository.findBookerPageByStatus(userId, Status.WAITING, cursorStart, cursorId, limit);
+            case REJECTED -> bookingRepository.findBookerPageByStatus(userId, Status.REJECTED, cursorStart, cursorId, limit);
+        };
 
         return bookings.stream().map(BookingMapper::toBookingDto).toList();
     }
 
+    @Override
+    public List<BookingDto> getAllOwnerBookingByState(Long userId, StateBooking state, Long afterId, Integer size) {
+        userCache.getUser(userId);
+        LocalDateTime cursorStart = cursorStart(afterId);
+        long cursorId = afterId == null ? Long.MAX_VALUE : afterId;
+        LocalDateTime now = LocalDateTime.now();
+        Limit limit = Limit.of(size);
 
+        List<Booking> bookings = switch (state) {
+            case ALL -> bookingRepository.findOwnerPage(userId, cursorStart, cursorId, limit);
+            case CURRENT -> bookingRepository.findOwnerCurrentPage(userId, now, cursorStart, cursorId, limit);
+            case PAST -> bookingRepository.findOwnerPastPage(userId, now, cursorStart, cursorId, limit);
+            case FUTURE -> bookingRepository.findOwnerFuturePage(userId, now, cursorStart, cursorId, limit);
+            case WAITING -> bookingRepository.findOwnerPageByStatus(userId, Status.WAITING, cursorStart, cursorId, limit);
+            case REJECTED -> bookingRepository.findOwnerPageByStatus(userId, Status.REJECTED, cursorStart, cursorId, limit);
+        };
+
+        return bookings.stream().map(BookingMapper::toBookingDto).toList();
+    }
+
+    @Override
+    public void exportUserBookings(Long userId, Consumer<BookingDto> sink) {
+        userCache.getUser(userId);
+
+        entityStreamExporter.export(bookingRepository.streamByBookerId(userId), BookingMapper::toBookingDto, sink);
+    }
+
+    @Override
+    public void exportOwnerBookings(Long userId, Consumer<BookingDto> sink) {
+        userCache.getUser(userId);
+
+        entityStreamExporter.export(bookingRepository.streamByOwnerId(userId), BookingMapper::toBookingDto, sink);
+    }
+
+    private LocalDateTime cursorStart(Long afterId) {
+        if (afterId == null) {
+            return FIRST_PAGE_START;
+        }
+
+        return bookingRepository.findStartById(afterId).orElseThrow(() -> new NotFoundException("Бронирование не найдено"));
+    }
 }
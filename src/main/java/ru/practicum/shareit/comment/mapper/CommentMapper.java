@@ -9,14 +9,27 @@ import java.time.LocalDateTime;
 
 public class CommentMapper {
     public static CommentDto toCommentDto(Comment comment) {
+        return toCommentDto(comment, comment.getAuthor().getName());
+    }
+
+    public static CommentDto toCommentDto(Comment comment, String authorName) {
         CommentDto commentDto = new CommentDto();
         commentDto.setId(comment.getId());
         commentDto.setText(comment.getText());
-        commentDto.setAuthorName(comment.getAuthor().getName());
+        commentDto.setAuthorName(authorName);
         commentDto.setCreated(comment.getCreated());
         return commentDto;
     }
 
+    public static CommentDto copyOf(CommentDto comment) {
+        CommentDto copy = new CommentDto();
+        copy.setId(comment.getId());
+        copy.setText(comment.getText());
+        copy.setAuthorName(comment.getAuthorName());
+        copy.setCreated(comment.getCreated());
+        return copy;
+    }
+
     public static Comment toComment(Item item, String text, User user) {
         Comment comment = new Comment();
         comment.setItem(item);
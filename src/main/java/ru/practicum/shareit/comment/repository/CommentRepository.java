@@ -1,6 +1,17 @@
 package ru.practicum.shareit.comment.repository;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.comment.model.Comment;
 
-public interface CommentRepository extends JpaRepository<Comment, Long> {}
+import java.util.Collection;
+import java.util.List;
+
+public interface CommentRepository extends JpaRepository<Comment, Long> {
+
+    @EntityGraph(attributePaths = "author")
+    @Query("SELECT c FROM Comment c WHERE c.item.id IN :itemIds ORDER BY c.id")
+    List<Comment> findAllByItemIds(@Param("itemIds") Collection<Long> itemIds);
+}
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.event;
+
+import java.time.LocalDateTime;
+
+/**
+ * Событие в очереди диспетчера. aggregateId - id бронирования или отзыва, userId - автор действия.
+ */
+public record DomainEvent(Long id, EventType type, Long aggregateId, Long itemId, Long userId, LocalDateTime created) {
+
+    public static DomainEvent of(OutboxEvent event) {
+        return new DomainEvent(event.getId(), event.getType(), event.getAggregateId(), event.getItemId(),
+                event.getUserId(), event.getCreated());
+    }
+}
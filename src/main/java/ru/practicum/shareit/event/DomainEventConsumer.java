@@ -0,0 +1,14 @@
+package ru.practicum.shareit.event;
+
+import java.util.List;
+
+/**
+ * Обработчик событий, вызывается потоком диспетчера пачками. Доставка "хотя бы один раз":
+ * после сбоя или восстановления из outbox событие может прийти повторно, обработка должна
+ * быть идемпотентной.
+ */
+public interface DomainEventConsumer {
+    String getName();
+
+    void consume(List<DomainEvent> events);
+}
@@ -0,0 +1,191 @@
+package ru.practicum.shareit.event;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.event.repository.OutboxEventRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ограниченная очередь событий и потоки, которые разбирают её пачками до batch-size событий
+ * и передают каждую пачку всем {@link DomainEventConsumer}. Поток запроса только кладёт событие
+ * в очередь и никогда не ждёт: если очередь заполнена, событие остаётся необработанным в outbox
+ * и возвращается в очередь задачей восстановления. Если обработчик не принял пачку, он получает
+ * её события по одному, чтобы одно сбойное событие не задерживало остальные. Обработанные всеми
+ * обработчиками события помечаются одним UPDATE; сбойные остаются в outbox с увеличенным счётчиком
+ * попыток, а после max-attempts попыток переходят в failed и больше не повторяются.
+ * Метрики: shareit.events.queue.size и .remaining, shareit.events.overflow, shareit.events.batch.size,
+ * shareit.events.consumer по обработчикам, shareit.events.failed и shareit.events.lag - от записи
+ * события до обработки.
+ */
+@Slf4j
+@Component
+public class DomainEventDispatcher implements SmartLifecycle {
+    private final BlockingQueue<DomainEvent> queue;
+    private final List<DomainEventConsumer> consumers;
+    private final OutboxEventRepository outboxEventRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final int workers;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Counter overflow;
+    private final Counter failed;
+    private final DistributionSummary batchSizes;
+    private final Timer lag;
+    private final List<Thread> threads = new ArrayList<>();
+    private volatile boolean running;
+
+    public DomainEventDispatcher(List<DomainEventConsumer> consumers,
+                                 OutboxEventRepository outboxEventRepository,
+                                 TransactionTemplate transactionTemplate,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${shareit.events.queue-capacity:10000}") int queueCapacity,
+                                 @Value("${shareit.events.workers:1}") int workers,
+                                 @Value("${shareit.events.batch-size:100}") int batchSize,
+                                 @Value("${shareit.events.max-attempts:5}") int maxAttempts) {
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.consumers = consumers;
+        this.outboxEventRepository = outboxEventRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
+        this.workers = workers;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.overflow = meterRegistry.counter("shareit.events.overflow");
+        this.failed = meterRegistry.counter("shareit.events.failed");
+        this.batchSizes = DistributionSummary.builder("shareit.events.batch.size").register(meterRegistry);
+        this.lag = Timer.builder("shareit.events.lag").register(meterRegistry);
+        Gauge.builder("shareit.events.queue.size", queue, BlockingQueue::size).register(meterRegistry);
+        Gauge.builder("shareit.events.queue.remaining", queue, BlockingQueue::remainingCapacity).register(meterRegistry);
+    }
+
+    /**
+     * Кладёт событие в очередь без ожидания; false - очередь заполнена.
+     */
+    public boolean offer(DomainEvent event) {
+        if (queue.offer(event)) {
+            return true;
+        }
+        overflow.increment();
+        return false;
+    }
+
+    public int remainingCapacity() {
+        return queue.remainingCapacity();
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        for (int i = 0; i < workers; i++) {
+            threads.add(Thread.ofPlatform().name("domain-events-" + i).daemon().start(this::run));
+        }
+    }
+
+    /**
+     * Недоразобранные события не теряются: они остаются в outbox необработанными.
+     */
+    @Override
+    public void stop() {
+        running = false;
+        threads.forEach(Thread::interrupt);
+        for (Thread thread : threads) {
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        threads.clear();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void run() {
+        List<DomainEvent> batch = new ArrayList<>(batchSize);
+
+        while (running) {
+            try {
+                DomainEvent first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                dispatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Результат пачки из {} событий не записан в outbox, она будет повторена", batch.size(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void dispatch(List<DomainEvent> batch) {
+        batchSizes.record(batch.size());
+        Set<Long> failedIds = new HashSet<>();
+
+        for (DomainEventConsumer consumer : consumers) {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            try {
+                consumer.consume(batch);
+            } catch (RuntimeException e) {
+                log.warn("Обработчик {} не обработал пачку из {} событий, события передаются по одному",
+                        consumer.getName(), batch.size(), e);
+                consumeOneByOne(consumer, batch, failedIds);
+            } finally {
+                sample.stop(meterRegistry.timer("shareit.events.consumer", "consumer", consumer.getName()));
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<DomainEvent> delivered = batch.stream().filter(event -> !failedIds.contains(event.id())).toList();
+        List<Long> deliveredIds = delivered.stream().map(DomainEvent::id).toList();
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!deliveredIds.isEmpty()) {
+                outboxEventRepository.markProcessed(deliveredIds, now);
+            }
+            if (!failedIds.isEmpty()) {
+                outboxEventRepository.incrementAttempts(failedIds);
+                outboxEventRepository.markFailed(failedIds, now, maxAttempts);
+            }
+        });
+        failed.increment(failedIds.size());
+        delivered.forEach(event -> lag.record(Duration.between(event.created(), now)));
+    }
+
+    private void consumeOneByOne(DomainEventConsumer consumer, List<DomainEvent> batch, Set<Long> failedIds) {
+        for (DomainEvent event : batch) {
+            try {
+                consumer.consume(List.of(event));
+            } catch (RuntimeException e) {
+                failedIds.add(event.id());
+                log.warn("Обработчик {} не обработал событие {}", consumer.getName(), event.id(), e);
+            }
+        }
+    }
+}
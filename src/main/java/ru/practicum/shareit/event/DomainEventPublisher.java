@@ -0,0 +1,43 @@
+package ru.practicum.shareit.event;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.event.repository.OutboxEventRepository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Публикация событий через outbox: строка пишется в той же транзакции, что и само изменение,
+ * а в очередь диспетчера событие попадает только после фиксации. Откат убирает и событие;
+ * падение узла между фиксацией и обработкой не теряет его - строку подберёт {@link OutboxRecoveryJob}.
+ */
+@Component
+@RequiredArgsConstructor
+public class DomainEventPublisher {
+    private final OutboxEventRepository outboxEventRepository;
+    private final DomainEventDispatcher dispatcher;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(EventType type, Long aggregateId, Long itemId, Long userId) {
+        OutboxEvent event = new OutboxEvent();
+        event.setType(type);
+        event.setAggregateId(aggregateId);
+        event.setItemId(itemId);
+        event.setUserId(userId);
+        event.setCreated(LocalDateTime.now());
+        event.setEnqueued(event.getCreated());
+        outboxEventRepository.save(event);
+
+        DomainEvent domainEvent = DomainEvent.of(event);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                dispatcher.offer(domainEvent);
+            }
+        });
+    }
+}
@@ -0,0 +1,8 @@
+package ru.practicum.shareit.event;
+
+public enum EventType {
+    BOOKING_CREATED,
+    BOOKING_APPROVED,
+    BOOKING_REJECTED,
+    COMMENT_ADDED
+}
@@ -0,0 +1,38 @@
+package ru.practicum.shareit.event;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "outbox_events", schema = "public")
+@Data
+public class OutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_events_seq")
+    @SequenceGenerator(name = "outbox_events_seq", sequenceName = "outbox_events_seq", allocationSize = 50)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    private EventType type;
+
+    @Column(name = "aggregate_id")
+    private Long aggregateId;
+
+    @Column(name = "item_id")
+    private Long itemId;
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    private LocalDateTime created;
+
+    private LocalDateTime processed;
+
+    private LocalDateTime enqueued;
+
+    private int attempts;
+
+    private LocalDateTime failed;
+}
@@ -0,0 +1,86 @@
+package ru.practicum.shareit.event;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.event.repository.OutboxEventRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Возвращает в очередь события, которые лежат в outbox необработанными и не ставились в очередь
+ * дольше grace-period: узел упал после фиксации, очередь была переполнена или обработчик завершился
+ * ошибкой. Перед постановкой в очередь строки захватываются: выборка блокирует их с SKIP LOCKED,
+ * а enqueued сдвигается на текущее время, поэтому ни этот, ни другой узел не подберёт их повторно
+ * раньше следующего grace-period. В очередь события попадают после фиксации захвата.
+ * Заодно удаляет обработанные строки старше retention и failed-строки старше failed-retention.
+ */
+@Slf4j
+@Component
+public class OutboxRecoveryJob {
+    private final OutboxEventRepository outboxEventRepository;
+    private final DomainEventDispatcher dispatcher;
+    private final Duration gracePeriod;
+    private final Duration retention;
+    private final Duration failedRetention;
+    private final Counter recovered;
+
+    public OutboxRecoveryJob(OutboxEventRepository outboxEventRepository,
+                             DomainEventDispatcher dispatcher,
+                             MeterRegistry meterRegistry,
+                             @Value("${shareit.events.recovery.grace-period:1m}") Duration gracePeriod,
+                             @Value("${shareit.events.retention:1d}") Duration retention,
+                             @Value("${shareit.events.failed-retention:7d}") Duration failedRetention) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.dispatcher = dispatcher;
+        this.gracePeriod = gracePeriod;
+        this.retention = retention;
+        this.failedRetention = failedRetention;
+        this.recovered = meterRegistry.counter("shareit.events.recovered");
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.events.recovery.interval:PT30S}",
+            initialDelayString = "${shareit.events.recovery.interval:PT30S}")
+    @Transactional
+    public void recover() {
+        LocalDateTime now = LocalDateTime.now();
+        int capacity = dispatcher.remainingCapacity();
+
+        if (capacity > 0) {
+            List<OutboxEvent> pending = outboxEventRepository.findUnclaimed(now.minus(gracePeriod), Limit.of(capacity));
+            if (!pending.isEmpty()) {
+                outboxEventRepository.markEnqueued(pending.stream().map(OutboxEvent::getId).toList(), now);
+                offerAfterCommit(pending.stream().map(DomainEvent::of).toList());
+            }
+        }
+
+        outboxEventRepository.deleteProcessedBefore(now.minus(retention));
+        outboxEventRepository.deleteFailedBefore(now.minus(failedRetention));
+    }
+
+    private void offerAfterCommit(List<DomainEvent> events) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                int offered = 0;
+                for (DomainEvent event : events) {
+                    if (!dispatcher.offer(event)) {
+                        break;
+                    }
+                    offered++;
+                }
+                recovered.increment(offered);
+                log.info("Из outbox в очередь возвращено {} событий", offered);
+            }
+        });
+    }
+}
@@ -0,0 +1,30 @@
+package ru.practicum.shareit.event.consumer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.event.DomainEvent;
+import ru.practicum.shareit.event.DomainEventConsumer;
+
+import java.util.List;
+
+/**
+ * Счётчики бизнес-событий shareit.events.consumed с тегом type.
+ */
+@Component
+@RequiredArgsConstructor
+public class EventMetricsConsumer implements DomainEventConsumer {
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public String getName() {
+        return "metrics";
+    }
+
+    @Override
+    public void consume(List<DomainEvent> events) {
+        for (DomainEvent event : events) {
+            meterRegistry.counter("shareit.events.consumed", "type", event.type().name()).increment();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package ru.practicum.shareit.event.repository;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.event.OutboxEvent;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import static org.hibernate.jpa.SpecHints.HINT_SPEC_LOCK_TIMEOUT;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Необработанные события, которые не ставились в очередь с момента before. Строки блокируются
+     * до конца транзакции, занятые другим узлом пропускаются (lock timeout -2 - SKIP LOCKED).
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = HINT_SPEC_LOCK_TIMEOUT, value = "-2"))
+    @Query("SELECT e FROM OutboxEvent e WHERE e.processed IS NULL AND e.failed IS NULL AND e.created < :before "
+            + "AND (e.enqueued IS NULL OR e.enqueued < :before) ORDER BY e.created, e.id")
+    List<OutboxEvent> findUnclaimed(@Param("before") LocalDateTime before, Limit limit);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.enqueued = :enqueued WHERE e.id IN :ids")
+    int markEnqueued(@Param("ids") Collection<Long> ids, @Param("enqueued") LocalDateTime enqueued);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.processed = :processed WHERE e.id IN :ids AND e.processed IS NULL")
+    int markProcessed(@Param("ids") Collection<Long> ids, @Param("processed") LocalDateTime processed);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.attempts = e.attempts + 1 WHERE e.id IN :ids AND e.processed IS NULL")
+    int incrementAttempts(@Param("ids") Collection<Long> ids);
+
+    /**
+     * События, исчерпавшие maxAttempts попыток, переходят в failed и больше не возвращаются в очередь.
+     */
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.failed = :failed WHERE e.id IN :ids AND e.processed IS NULL "
+            + "AND e.attempts >= :maxAttempts")
+    int markFailed(@Param("ids") Collection<Long> ids, @Param("failed") LocalDateTime failed,
+                   @Param("maxAttempts") int maxAttempts);
+
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.processed < :before")
+    int deleteProcessedBefore(@Param("before") LocalDateTime before);
+
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.failed < :before")
+    int deleteFailedBefore(@Param("before") LocalDateTime before);
+}
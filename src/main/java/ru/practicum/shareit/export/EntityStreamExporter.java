@@ -0,0 +1,53 @@
+package ru.practicum.shareit.export;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Отдаёт потоковую выборку сущностей в выгрузку частями по CHUNK_SIZE строк: каждая часть
+ * преобразуется в DTO и передаётся получателю, после чего контекст персистентности очищается,
+ * чтобы прочитанные сущности не накапливались в нём до конца транзакции. Вызывается внутри
+ * транзакции, открывшей поток.
+ */
+@Component
+@RequiredArgsConstructor
+public class EntityStreamExporter {
+    static final int CHUNK_SIZE = 500;
+
+    private final EntityManager entityManager;
+
+    public <E, D> void export(Stream<E> rows, Function<E, D> mapper, Consumer<D> sink) {
+        exportChunks(rows, chunk -> chunk.stream().map(mapper).toList(), sink);
+    }
+
+    /**
+     * mapper получает часть целиком, поэтому может догрузить связанные данные одним запросом на часть.
+     */
+    public <E, D> void exportChunks(Stream<E> rows, Function<List<E>, List<D>> mapper, Consumer<D> sink) {
+        try (rows) {
+            List<E> chunk = new ArrayList<>(CHUNK_SIZE);
+            for (E row : (Iterable<E>) rows::iterator) {
+                chunk.add(row);
+                if (chunk.size() == CHUNK_SIZE) {
+                    flush(chunk, mapper, sink);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                flush(chunk, mapper, sink);
+            }
+        }
+    }
+
+    private <E, D> void flush(List<E> chunk, Function<List<E>, List<D>> mapper, Consumer<D> sink) {
+        mapper.apply(chunk).forEach(sink);
+        chunk.clear();
+        entityManager.clear();
+    }
+}
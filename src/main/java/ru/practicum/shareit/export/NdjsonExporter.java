@@ -0,0 +1,69 @@
+package ru.practicum.shareit.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Пишет строки выгрузки в ответ в формате NDJSON (по одному JSON-объекту на строку) по мере их
+ * получения из БД и сбрасывает буфер в сеть каждые shareit.export.flush-every строк, так что
+ * объём памяти не зависит от размера выгрузки.
+ */
+@Component
+public class NdjsonExporter {
+    public static final String MEDIA_TYPE = "application/x-ndjson";
+
+    private final ObjectWriter objectWriter;
+    private final int flushEvery;
+
+    public NdjsonExporter(ObjectMapper objectMapper, @Value("${shareit.export.flush-every:500}") int flushEvery) {
+        this.objectWriter = objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.flushEvery = flushEvery;
+    }
+
+    /**
+     * Тип содержимого выставляется только перед первой строкой: если производитель строк упадёт
+     * раньше (например, пользователь не найден), обработчик ошибок ещё сможет вернуть обычный JSON.
+     */
+    public <T> void write(HttpServletResponse response, Consumer<Consumer<T>> producer) throws IOException {
+        OutputStream out = response.getOutputStream();
+        long[] written = new long[1];
+
+        try {
+            producer.accept(row -> {
+                try {
+                    if (written[0] == 0) {
+                        startResponse(response);
+                    }
+                    objectWriter.writeValue(out, row);
+                    out.write('\n');
+                    if (++written[0] % flushEvery == 0) {
+                        out.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        if (written[0] == 0) {
+            startResponse(response);
+        }
+        out.flush();
+    }
+
+    private static void startResponse(HttpServletResponse response) {
+        response.setContentType(MEDIA_TYPE);
+        response.setCharacterEncoding("UTF-8");
+    }
+}
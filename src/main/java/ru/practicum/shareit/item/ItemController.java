@@ -1,41 +1,110 @@
 package ru.practicum.shareit.item;
 
+import io.micrometer.core.annotation.Timed;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import ru.practicum.shareit.batch.BatchResult;
 import ru.practicum.shareit.comment.dto.CommentDto;
 import ru.practicum.shareit.comment.model.CommentRequest;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.export.NdjsonExporter;
+import ru.practicum.shareit.item.availability.ItemAvailabilityService;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.pagination.KeysetPage;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
+@Timed("shareit.controller")
 @RestController
 @RequestMapping("/items")
 @RequiredArgsConstructor
+@Validated
 public class ItemController {
     private final ItemService itemService;
+    private final ItemAvailabilityService itemAvailabilityService;
+    private final NdjsonExporter ndjsonExporter;
 
     @GetMapping
-    public List<ItemDto> getItemsFromUser(@RequestHeader("X-Sharer-User-Id") Long userId) {
-        return itemService.getItemsFromUser(userId);
+    public List<ItemDto> getItemsFromUser(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                          @RequestParam(required = false) Long afterId,
+                                          @RequestParam(defaultValue = "100") @Positive @Max(1000) Integer size,
+                                          HttpServletResponse response) {
+        return KeysetPage.of(itemService.getItemsFromUser(userId, afterId, size), size, ItemDto::getId, response);
     }
 
+    /**
+     * Все вещи владельца в NDJSON, с отзывами - как в GET /items.
+     */
+    @GetMapping("/export")
+    public void exportItems(@RequestHeader("X-Sharer-User-Id") Long userId, HttpServletResponse response) throws IOException {
+        ndjsonExporter.<ItemDto>write(response, sink -> itemService.exportItems(userId, sink));
+    }
+
+    /**
+     * Строгий ETag - версия вещи. На If-None-Match с актуальной версией отвечает 304 после одного
+     * запроса версии, без загрузки отзывов и сериализации.
+     */
     @GetMapping("/{id}")
-    public ItemDto getItemById(@PathVariable(value = "id") Long id) {
-            return itemService.getItemById(id);
+    public ItemDto getItemById(@PathVariable(value = "id") Long id, WebRequest request) {
+        if (request.checkNotModified(String.valueOf(itemService.getItemVersion(id)))) {
+            return null;
+        }
+        return itemService.getItemById(id);
+    }
+
+    /**
+     * Свободные интервалы вещи в окне [from, to]; по умолчанию окно начинается сейчас.
+     * includeWaiting=true считает занятым и время ожидающих подтверждения бронирований.
+     */
+    @GetMapping("/{id}/availability")
+    public ItemAvailabilityDto getAvailability(@PathVariable("id") Long id,
+                                               @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                               @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                               @RequestParam(defaultValue = "false") boolean includeWaiting) {
+        return itemAvailabilityService.getAvailability(id, from, to, includeWaiting);
     }
 
+    @GetMapping("/availability")
+    public List<ItemAvailabilityDto> getAvailability(@RequestParam("ids") @Size(min = 1, max = 1000) List<Long> ids,
+                                                     @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                     @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                                     @RequestParam(defaultValue = "false") boolean includeWaiting) {
+        return itemAvailabilityService.getAvailability(ids, from, to, includeWaiting);
+    }
+
+    /**
+     * С limit - не больше limit вещей по убыванию релевантности, без него - страница по id после afterId.
+     * Отзывы в результатах только при withComments=true.
+     */
     @GetMapping("/search")
-    public List<ItemDto> getSearchedItems(@RequestParam("text") String text) {
+    public List<ItemDto> getSearchedItems(@RequestParam("text") String text,
+                                          @RequestParam(required = false) Long afterId,
+                                          @RequestParam(defaultValue = "100") @Positive @Max(1000) Integer size,
+                                          @RequestParam(required = false) @Positive @Max(1000) Integer limit,
+                                          @RequestParam(defaultValue = "false") boolean withComments,
+                                          HttpServletResponse response) {
         if (text == null || text.isEmpty()) {
             return new ArrayList<ItemDto>();
         }
-        return itemService.getSearchedItems(text);
+        if (limit != null) {
+            return itemService.getRankedItems(text, limit, withComments);
+        }
+        return KeysetPage.of(itemService.getSearchedItems(text, afterId, size, withComments), size, ItemDto::getId, response);
     }
 
     @PostMapping
@@ -55,6 +124,11 @@ public class ItemController {
         return itemService.createItem(ItemMapper.toItem(item), userId);
     }
 
+    @PostMapping("/batch")
+    public List<BatchResult> createItems(@RequestBody @Size(max = 10000) List<ItemDto> items, @RequestHeader("X-Sharer-User-Id") Long userId) {
+        return itemService.createItems(items, userId);
+    }
+
     @PatchMapping("/{id}")
     public ItemDto updateItem(@PathVariable("id") Long id, @RequestHeader("X-Sharer-User-Id") Long userId, @RequestBody ItemDto newItemRequest) {
         return itemService.updateItem(id, userId, ItemMapper.toItem(newItemRequest));
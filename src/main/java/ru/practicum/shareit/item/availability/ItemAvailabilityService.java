@@ -0,0 +1,12 @@
+package ru.practicum.shareit.item.availability;
+
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ItemAvailabilityService {
+    ItemAvailabilityDto getAvailability(Long itemId, LocalDateTime from, LocalDateTime to, boolean includeWaiting);
+
+    List<ItemAvailabilityDto> getAvailability(List<Long> itemIds, LocalDateTime from, LocalDateTime to, boolean includeWaiting);
+}
@@ -0,0 +1,125 @@
+package ru.practicum.shareit.item.availability;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.dto.BookedSlot;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.item.dto.TimeSlot;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Свободные интервалы вещей в окне [from, to]. Бронирования, пересекающие окно, читаются одним
+ * запросом, отсортированными по началу, и сливаются одним проходом: курсор идёт от from,
+ * промежуток до начала очередного бронирования свободен, затем курсор сдвигается на его окончание.
+ * Ожидающие бронирования могут пересекаться между собой, проход это учитывает.
+ * Границы свободных интервалов совпадают с границами бронирований и самому интервалу не принадлежат.
+ */
+@Service
+@Transactional(readOnly = true)
+public class ItemAvailabilityServiceImpl implements ItemAvailabilityService {
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final Duration defaultWindow;
+    private final Duration maxWindow;
+
+    public ItemAvailabilityServiceImpl(ItemRepository itemRepository,
+                                       BookingRepository bookingRepository,
+                                       @Value("${shareit.availability.default-window:30d}") Duration defaultWindow,
+                                       @Value("${shareit.availability.max-window:366d}") Duration maxWindow) {
+        this.itemRepository = itemRepository;
+        this.bookingRepository = bookingRepository;
+        this.defaultWindow = defaultWindow;
+        this.maxWindow = maxWindow;
+    }
+
+    @Override
+    public ItemAvailabilityDto getAvailability(Long itemId, LocalDateTime from, LocalDateTime to, boolean includeWaiting) {
+        LocalDateTime start = from == null ? LocalDateTime.now() : from;
+        LocalDateTime end = windowEnd(start, to);
+        boolean available = itemRepository.findAvailableById(itemId).orElseThrow(() -> new NotFoundException("Объект не найден"));
+
+        if (!available) {
+            return new ItemAvailabilityDto(itemId, false, start, end, List.of());
+        }
+
+        List<BookedSlot> booked = bookingRepository.findBookedSlots(List.of(itemId), statuses(includeWaiting), start, end);
+        return new ItemAvailabilityDto(itemId, true, start, end, freeSlots(booked, start, end));
+    }
+
+    /**
+     * Несуществующие вещи в ответ не попадают; порядок - как в запросе.
+     */
+    @Override
+    public List<ItemAvailabilityDto> getAvailability(List<Long> itemIds, LocalDateTime from, LocalDateTime to, boolean includeWaiting) {
+        LocalDateTime start = from == null ? LocalDateTime.now() : from;
+        LocalDateTime end = windowEnd(start, to);
+        Map<Long, Item> items = itemRepository.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        List<Long> availableIds = items.values().stream().filter(Item::getAvailable).map(Item::getId).toList();
+
+        Map<Long, List<BookedSlot>> booked = availableIds.isEmpty() ? Map.of()
+                : bookingRepository.findBookedSlots(availableIds, statuses(includeWaiting), start, end).stream()
+                .collect(Collectors.groupingBy(BookedSlot::itemId));
+
+        return itemIds.stream()
+                .distinct()
+                .filter(items::containsKey)
+                .map(id -> items.get(id).getAvailable()
+                        ? new ItemAvailabilityDto(id, true, start, end, freeSlots(booked.getOrDefault(id, List.of()), start, end))
+                        : new ItemAvailabilityDto(id, false, start, end, List.of()))
+                .toList();
+    }
+
+    /**
+     * booked отсортированы по началу.
+     */
+    static List<TimeSlot> freeSlots(List<BookedSlot> booked, LocalDateTime from, LocalDateTime to) {
+        List<TimeSlot> free = new ArrayList<>();
+        LocalDateTime cursor = from;
+
+        for (BookedSlot slot : booked) {
+            if (slot.start().isAfter(cursor)) {
+                free.add(new TimeSlot(cursor, slot.start()));
+            }
+            if (slot.end().isAfter(cursor)) {
+                cursor = slot.end();
+            }
+            if (!cursor.isBefore(to)) {
+                return free;
+            }
+        }
+
+        free.add(new TimeSlot(cursor, to));
+        return free;
+    }
+
+    private LocalDateTime windowEnd(LocalDateTime from, LocalDateTime to) {
+        LocalDateTime end = to == null ? from.plus(defaultWindow) : to;
+
+        if (!end.isAfter(from)) {
+            throw new ValidationException("Окончание периода должно быть позже начала");
+        }
+        if (Duration.between(from, end).compareTo(maxWindow) > 0) {
+            throw new ValidationException("Период не может быть длиннее " + maxWindow.toDays() + " дней");
+        }
+        return end;
+    }
+
+    private static List<Status> statuses(boolean includeWaiting) {
+        return includeWaiting ? List.of(Status.APPROVED, Status.WAITING) : List.of(Status.APPROVED);
+    }
+}
@@ -0,0 +1,46 @@
+package ru.practicum.shareit.item.cache;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+/**
+ * /actuator/itemcache: статистика кэша карточек вещей, просмотр карточки без загрузки
+ * (/actuator/itemcache/{id}) и сброс всего кэша или одной записи (DELETE).
+ */
+@Component
+@Endpoint(id = "itemcache")
+@RequiredArgsConstructor
+public class ItemCacheEndpoint {
+    private final ItemCardCache itemCardCache;
+
+    @ReadOperation
+    public ItemCacheSummary summary() {
+        CacheStats stats = itemCardCache.stats();
+        return new ItemCacheSummary(itemCardCache.size(), stats.hitCount(), stats.missCount(), stats.hitRate(),
+                stats.evictionCount());
+    }
+
+    @ReadOperation
+    public ItemDto card(@Selector Long id) {
+        return itemCardCache.getIfPresent(id);
+    }
+
+    @DeleteOperation
+    public void flush() {
+        itemCardCache.invalidateAll();
+    }
+
+    @DeleteOperation
+    public void evict(@Selector Long id) {
+        itemCardCache.invalidate(id);
+    }
+
+    public record ItemCacheSummary(long size, long hits, long misses, double hitRate, long evictions) {
+    }
+}
@@ -0,0 +1,96 @@
+package ru.practicum.shareit.item.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.time.Duration;
+import java.util.Collection;
+
+/**
+ * Кэш собранных карточек вещей (вещь вместе с отзывами) для GET /items/{id}.
+ * Размер ограничен, вытеснение - W-TinyLFU из Caffeine. Запись сбрасывается при изменении вещи,
+ * новом отзыве, одобрении или отклонении бронирования и переименовании автора отзыва:
+ * сразу и ещё раз после завершения транзакции, чтобы параллельное чтение не вернуло в кэш
+ * незафиксированное состояние. Метрики - cache.* и cache.hit.ratio с тегом cache=items.
+ * Наружу отдаются копии карточек, так что изменение результата не портит запись кэша.
+ */
+@Component
+public class ItemCardCache {
+    private final ItemRepository itemRepository;
+    private final Cache<Long, ItemDto> cache;
+
+    public ItemCardCache(ItemRepository itemRepository,
+                         MeterRegistry meterRegistry,
+                         @Value("${shareit.item-cache.maximum-size:10000}") long maximumSize,
+                         @Value("${shareit.item-cache.expire-after-write:10m}") Duration expireAfterWrite) {
+        this.itemRepository = itemRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "items");
+        Gauge.builder("cache.hit.ratio", cache, c -> c.stats().hitRate())
+                .tag("cache", "items")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Карточка вещи или null, если вещи нет; отсутствующие вещи не кэшируются.
+     */
+    public ItemDto get(Long id) {
+        return copyOf(cache.get(id, key -> itemRepository.findByIdWithComments(key).map(ItemMapper::toItemDto).orElse(null)));
+    }
+
+    public ItemDto getIfPresent(Long id) {
+        return copyOf(cache.getIfPresent(id));
+    }
+
+    public void invalidate(Long id) {
+        cache.invalidate(id);
+        afterCompletion(() -> cache.invalidate(id));
+    }
+
+    public void invalidateAll(Collection<Long> ids) {
+        cache.invalidateAll(ids);
+        afterCompletion(() -> cache.invalidateAll(ids));
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    private static ItemDto copyOf(ItemDto item) {
+        return item == null ? null : ItemMapper.copyOf(item);
+    }
+
+    private static void afterCompletion(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    action.run();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package ru.practicum.shareit.item.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record ItemAvailabilityDto(Long itemId, Boolean available, LocalDateTime from, LocalDateTime to, List<TimeSlot> free) {
+}
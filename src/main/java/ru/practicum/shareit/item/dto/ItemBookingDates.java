@@ -0,0 +1,6 @@
+package ru.practicum.shareit.item.dto;
+
+import java.time.LocalDateTime;
+
+public record ItemBookingDates(Long itemId, LocalDateTime lastBooking, LocalDateTime nextBooking) {
+}
@@ -1,25 +1,59 @@
 package ru.practicum.shareit.item.mapper;
 
+import ru.practicum.shareit.comment.dto.CommentDto;
 import ru.practicum.shareit.comment.mapper.CommentMapper;
+import ru.practicum.shareit.item.dto.ItemBookingDates;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
 
+import java.util.List;
+
 public class ItemMapper {
     public static ItemDto toItemDto(Item item) {
+        return toItemDto(item, item.getComments() != null
+                ? item.getComments().stream().map(CommentMapper::toCommentDto).toList()
+                : null);
+    }
+
+    public static ItemDto toItemDto(Item item, List<CommentDto> comments) {
         ItemDto itemDto = new ItemDto();
         itemDto.setId(item.getId());
         itemDto.setName(item.getName());
         itemDto.setDescription(item.getDescription());
         itemDto.setAvailable(item.getAvailable());
         itemDto.setRequestId(item.getRequest() != null ? item.getRequest().getId() : null);
+        itemDto.setComments(comments);
+        return itemDto;
+    }
 
-        if (item.getComments() != null) {
-            itemDto.setComments(item.getComments().stream().map(CommentMapper::toCommentDto).toList());
+    public static ItemDto toItemDto(Item item, ItemBookingDates bookingDates) {
+        ItemDto itemDto = toItemDto(item);
+
+        if (bookingDates != null) {
+            itemDto.setLastBooking(bookingDates.lastBooking());
+            itemDto.setNextBooking(bookingDates.nextBooking());
         }
 
         return itemDto;
     }
 
+    public static ItemDto copyOf(ItemDto item) {
+        ItemDto copy = new ItemDto();
+        copy.setId(item.getId());
+        copy.setName(item.getName());
+        copy.setDescription(item.getDescription());
+        copy.setAvailable(item.getAvailable());
+        copy.setRequestId(item.getRequestId());
+        copy.setLastBooking(item.getLastBooking());
+        copy.setNextBooking(item.getNextBooking());
+
+        if (item.getComments() != null) {
+            copy.setComments(item.getComments().stream().map(CommentMapper::copyOf).toList());
+        }
+
+        return copy;
+    }
+
     public static Item updateItemField(Item item, Item newItemRequest) {
         if (newItemRequest.getName() != null) {
             item.setName(newItemRequest.getName());
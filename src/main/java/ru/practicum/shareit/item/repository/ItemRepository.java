@@ -1,20 +1,55 @@
 package ru.practicum.shareit.item.repository;
 
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.item.model.Item;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
-    @Query("SELECT DISTINCT i FROM Item i LEFT JOIN FETCH i.comments WHERE ((LOWER(i.name) LIKE LOWER(CONCAT('%', :text, '%'))) OR (LOWER(i.description) LIKE LOWER(CONCAT('%', :text, '%')))) AND i.available = true")
-    Collection<Item> findByNameOrDescriptionWithComments(@Param("text") String text);
+    @Query(value = "SELECT i.id FROM items i WHERE i.is_available = true AND (LOWER(i.name) LIKE :pattern ESCAPE '\\' OR LOWER(i.description) LIKE :pattern ESCAPE '\\') AND i.id > :afterId ORDER BY i.id LIMIT :size", nativeQuery = true)
+    List<Long> searchAvailableItemIds(@Param("pattern") String pattern, @Param("afterId") long afterId, @Param("size") int size);
+
+    @EntityGraph(attributePaths = {"comments", "comments.author"})
+    @Query("SELECT i FROM Item i WHERE i.id IN :ids ORDER BY i.id")
+    List<Item> findAllByIdWithComments(@Param("ids") Collection<Long> ids);
 
-    @Query("SELECT DISTINCT i FROM Item i LEFT JOIN FETCH i.comments WHERE i.owner.id = :userId")
-    Collection<Item> findByOwnerIdWithComments(@Param("userId") Long userId);
+    @Query("SELECT i.id FROM Item i WHERE i.owner.id = :userId AND i.id > :afterId ORDER BY i.id")
+    List<Long> findOwnerItemIds(@Param("userId") Long userId, @Param("afterId") long afterId, Limit limit);
 
-    @Query("SELECT i FROM Item i LEFT JOIN FETCH i.comments WHERE i.id = :id")
+    @EntityGraph(attributePaths = {"comments", "comments.author"})
+    @Query("SELECT i FROM Item i WHERE i.id = :id")
     Optional<Item> findByIdWithComments(@Param("id") long id);
+
+    @Query("SELECT i.available FROM Item i WHERE i.id = :id")
+    Optional<Boolean> findAvailableById(@Param("id") long id);
+
+    @Query("SELECT i.version FROM Item i WHERE i.id = :id")
+    Optional<Long> findVersionById(@Param("id") long id);
+
+    @Modifying
+    @Query("UPDATE Item i SET i.version = i.version + 1 WHERE i.id = :id")
+    void incrementVersion(@Param("id") long id);
+
+    @Query("SELECT DISTINCT c.item.id FROM Comment c WHERE c.author.id = :userId")
+    List<Long> findIdsCommentedBy(@Param("userId") long userId);
+
+    @Modifying
+    @Query("UPDATE Item i SET i.version = i.version + 1 WHERE i.id IN :ids")
+    void incrementVersions(@Param("ids") Collection<Long> ids);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT i FROM Item i WHERE i.owner.id = :userId ORDER BY i.id")
+    Stream<Item> streamByOwnerId(@Param("userId") Long userId);
 }
@@ -0,0 +1,75 @@
+package ru.practicum.shareit.item.search;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.StringJoiner;
+
+/**
+ * Поиск средствами БД: в Postgres запрос обслуживается триграммными GIN-индексами
+ * по LOWER(name) и LOWER(description) (см. schema-postgresql.sql). Ранжирование тоже на стороне БД:
+ * ORDER BY релевантности с LIMIT, то есть сортировка с ограничением top-N вместо полной.
+ * Число слов запроса заранее неизвестно, поэтому ранжирующий запрос собирается здесь, а не в репозитории.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "database", matchIfMissing = true)
+public class DatabaseItemSearchEngine implements ItemSearchEngine {
+    private final ItemRepository itemRepository;
+    private final EntityManager entityManager;
+
+    @Override
+    public List<Long> search(String text, long afterId, int size) {
+        return itemRepository.searchAvailableItemIds(toLikePattern(text), afterId, size);
+    }
+
+    /**
+     * Разница длин строки до и после удаления вхождений слова, делённая на длину слова, - число вхождений.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Long> searchRanked(String text, int limit) {
+        List<String> terms = ItemSearchEngine.terms(text);
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+
+        StringJoiner matches = new StringJoiner(" OR ", "(", ")");
+        StringJoiner score = new StringJoiner(" + ");
+        for (int i = 0; i < terms.size(); i++) {
+            matches.add("LOWER(i.name) LIKE :pattern" + i + " ESCAPE '\\' OR LOWER(i.description) LIKE :pattern" + i + " ESCAPE '\\'");
+            score.add("(:nameWeight * (LENGTH(LOWER(i.name)) - LENGTH(REPLACE(LOWER(i.name), :term" + i + ", ''))) "
+                    + "+ LENGTH(LOWER(i.description)) - LENGTH(REPLACE(LOWER(i.description), :term" + i + ", ''))) / :length" + i);
+        }
+
+        Query query = entityManager.createNativeQuery("SELECT i.id FROM items i WHERE i.is_available = true AND " + matches
+                + " ORDER BY " + score + " DESC, i.id LIMIT :limit", Long.class);
+        for (int i = 0; i < terms.size(); i++) {
+            query.setParameter("pattern" + i, toLikePattern(terms.get(i)));
+            query.setParameter("term" + i, terms.get(i));
+            query.setParameter("length" + i, terms.get(i).length());
+        }
+        query.setParameter("nameWeight", NAME_WEIGHT);
+        query.setParameter("limit", limit);
+        return query.getResultList();
+    }
+
+    @Override
+    public void index(Item item) {
+    }
+
+    static String toLikePattern(String text) {
+        String escaped = text.toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+}
@@ -0,0 +1,197 @@
+package ru.practicum.shareit.item.search;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Инвертированный индекс по триграммам названия и описания доступных вещей.
+ * Кандидаты берутся пересечением списков триграмм запроса, затем проверяются на вхождение подстроки,
+ * поэтому результат совпадает с поиском LIKE '%text%'.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "memory")
+public class InMemoryItemSearchEngine implements ItemSearchEngine {
+    private static final int GRAM_LENGTH = 3;
+
+    private final ItemRepository itemRepository;
+
+    private final Map<Long, IndexedItem> documents = new HashMap<>();
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @PostConstruct
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            documents.clear();
+            postings.clear();
+            itemRepository.findAll().forEach(this::put);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Long> search(String text, long afterId, int size) {
+        String query = text.toLowerCase(Locale.ROOT);
+
+        lock.readLock().lock();
+        try {
+            Collection<Long> candidates = query.length() < GRAM_LENGTH ? documents.keySet() : candidates(query);
+            return candidates.stream()
+                    .filter(id -> id > afterId && documents.get(id).contains(query))
+                    .sorted()
+                    .limit(size)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Кандидаты - объединение кандидатов по словам запроса. Лучшие limit вещей отбираются кучей
+     * размера limit: в её вершине худшая из отобранных, поэтому на каждого кандидата приходится
+     * O(log limit) и полной сортировки нет.
+     */
+    @Override
+    public List<Long> searchRanked(String text, int limit) {
+        List<String> terms = ItemSearchEngine.terms(text);
+        Comparator<Ranked> worstFirst = Comparator.comparingInt(Ranked::score)
+                .thenComparing(Ranked::id, Comparator.reverseOrder());
+        PriorityQueue<Ranked> top = new PriorityQueue<>(limit + 1, worstFirst);
+
+        lock.readLock().lock();
+        try {
+            Set<Long> candidates = new HashSet<>();
+            for (String term : terms) {
+                candidates.addAll(term.length() < GRAM_LENGTH ? documents.keySet() : candidates(term));
+            }
+            for (Long id : candidates) {
+                int score = documents.get(id).score(terms);
+                if (score == 0) {
+                    continue;
+                }
+                Ranked ranked = new Ranked(id, score);
+                if (top.size() == limit && worstFirst.compare(ranked, top.peek()) <= 0) {
+                    continue;
+                }
+                top.offer(ranked);
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Long> ids = new ArrayList<>(top.size());
+        while (!top.isEmpty()) {
+            ids.add(top.poll().id());
+        }
+        Collections.reverse(ids);
+        return ids;
+    }
+
+    @Override
+    public void index(Item item) {
+        lock.writeLock().lock();
+        try {
+            remove(item.getId());
+            put(item);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private Collection<Long> candidates(String query) {
+        List<Set<Long>> lists = new ArrayList<>();
+        for (String gram : grams(query)) {
+            Set<Long> ids = postings.get(gram);
+            if (ids == null) {
+                return List.of();
+            }
+            lists.add(ids);
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+
+        Set<Long> result = new HashSet<>(lists.getFirst());
+        for (int i = 1; i < lists.size() && !result.isEmpty(); i++) {
+            result.retainAll(lists.get(i));
+        }
+        return result;
+    }
+
+    private void put(Item item) {
+        if (!Boolean.TRUE.equals(item.getAvailable())) {
+            return;
+        }
+        IndexedItem document = new IndexedItem(item.getName().toLowerCase(Locale.ROOT),
+                item.getDescription().toLowerCase(Locale.ROOT));
+        documents.put(item.getId(), document);
+        for (String gram : document.grams()) {
+            postings.computeIfAbsent(gram, key -> new HashSet<>()).add(item.getId());
+        }
+    }
+
+    private void remove(Long id) {
+        IndexedItem document = documents.remove(id);
+        if (document == null) {
+            return;
+        }
+        for (String gram : document.grams()) {
+            Set<Long> ids = postings.get(gram);
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                postings.remove(gram);
+            }
+        }
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+
+    private static int occurrences(String text, String query) {
+        int count = 0;
+        for (int i = text.indexOf(query); i >= 0; i = text.indexOf(query, i + query.length())) {
+            count++;
+        }
+        return count;
+    }
+
+    private record Ranked(Long id, int score) {
+    }
+
+    private record IndexedItem(String name, String description) {
+        boolean contains(String query) {
+            return name.contains(query) || description.contains(query);
+        }
+
+        int score(List<String> terms) {
+            int score = 0;
+            for (String term : terms) {
+                score += NAME_WEIGHT * occurrences(name, term) + occurrences(description, term);
+            }
+            return score;
+        }
+
+        Set<String> grams() {
+            Set<String> grams = InMemoryItemSearchEngine.grams(name);
+            grams.addAll(InMemoryItemSearchEngine.grams(description));
+            return grams;
+        }
+    }
+}
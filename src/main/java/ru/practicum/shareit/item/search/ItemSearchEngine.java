@@ -0,0 +1,41 @@
+package ru.practicum.shareit.item.search;
+
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+public interface ItemSearchEngine {
+    /**
+     * Вес вхождения в название относительно вхождения в описание.
+     */
+    int NAME_WEIGHT = 3;
+
+    /**
+     * Сколько слов запроса учитывается при ранжировании, остальные отбрасываются.
+     */
+    int MAX_TERMS = 10;
+
+    List<Long> search(String text, long afterId, int size);
+
+    /**
+     * Не больше limit id доступных вещей, содержащих хотя бы одно слово запроса, по убыванию
+     * релевантности: сумма по словам - NAME_WEIGHT за каждое вхождение слова в название и 1
+     * за вхождение в описание; при равенстве - по возрастанию id.
+     */
+    List<Long> searchRanked(String text, int limit);
+
+    void index(Item item);
+
+    /**
+     * Слова запроса в нижнем регистре, без повторов, не больше MAX_TERMS.
+     */
+    static List<String> terms(String text) {
+        return Arrays.stream(text.toLowerCase(Locale.ROOT).split("\\s+"))
+                .filter(term -> !term.isEmpty())
+                .distinct()
+                .limit(MAX_TERMS)
+                .toList();
+    }
+}
@@ -1,20 +1,30 @@
 package ru.practicum.shareit.item.service;
 
+import ru.practicum.shareit.batch.BatchResult;
 import ru.practicum.shareit.comment.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface ItemService {
-    List<ItemDto> getItemsFromUser(Long userId);
+    List<ItemDto> getItemsFromUser(Long userId, Long afterId, Integer size);
 
     ItemDto getItemById(Long id);
 
-    List<ItemDto> getSearchedItems(String text);
+    long getItemVersion(Long id);
+
+    void exportItems(Long userId, Consumer<ItemDto> sink);
+
+    List<ItemDto> getSearchedItems(String text, Long afterId, Integer size, boolean withComments);
+
+    List<ItemDto> getRankedItems(String text, int limit, boolean withComments);
 
     ItemDto createItem(Item item, Long userId);
 
+    List<BatchResult> createItems(List<ItemDto> items, Long userId);
+
     ItemDto updateItem(Long id, Long userId, Item newItemRequest);
 
     CommentDto addComment(Long itemId, Long userId, String text);
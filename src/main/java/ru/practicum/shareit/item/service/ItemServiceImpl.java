@@ -1,100 +1,230 @@
 package ru.practicum.shareit.item.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
-import ru.practicum.shareit.booking.Booking;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.batch.BatchResult;
+import ru.practicum.shareit.batch.ChunkedBatchWriter;
 import ru.practicum.shareit.booking.Status;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.comment.dto.CommentDto;
 import ru.practicum.shareit.comment.mapper.CommentMapper;
 import ru.practicum.shareit.comment.model.Comment;
 import ru.practicum.shareit.comment.repository.CommentRepository;
+import ru.practicum.shareit.event.DomainEventPublisher;
+import ru.practicum.shareit.event.EventType;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.export.EntityStreamExporter;
+import ru.practicum.shareit.item.cache.ItemCardCache;
+import ru.practicum.shareit.item.dto.ItemBookingDates;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
 import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.cache.UserCache;
+import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class ItemServiceImpl implements ItemService {
     private final ItemRepository itemRepository;
+    private final ItemCardCache itemCardCache;
     private final UserRepository userRepository;
+    private final UserCache userCache;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
+    private final ItemSearchEngine itemSearchEngine;
+    private final ChunkedBatchWriter batchWriter;
+    private final DomainEventPublisher eventPublisher;
+    private final EntityStreamExporter entityStreamExporter;
 
     @Override
-    public List<ItemDto> getItemsFromUser(Long userId) {
-        User user = userRepository.findById(userId).orElseThrow(() -> new NotFoundException("Пользователь не найден"));
-        return itemRepository.findByOwnerIdWithComments(user.getId()).stream().map(ItemMapper::toItemDto).toList();
+    public List<ItemDto> getItemsFromUser(Long userId, Long afterId, Integer size) {
+        userCache.getUser(userId);
+        List<Long> ids = itemRepository.findOwnerItemIds(userId, afterId == null ? 0 : afterId, Limit.of(size));
+
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, ItemBookingDates> bookingDates = bookingRepository.findBookingDates(ids, Status.APPROVED, LocalDateTime.now())
+                .stream()
+                .collect(Collectors.toMap(ItemBookingDates::itemId, Function.identity()));
+
+        return itemRepository.findAllByIdWithComments(ids).stream()
+                .map(item -> ItemMapper.toItemDto(item, bookingDates.get(item.getId())))
+                .toList();
     }
 
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public ItemDto getItemById(Long id) {
-        Item item = itemRepository.findByIdWithComments(id).orElseThrow(() -> new NotFoundException("Объект не найден"));
+        ItemDto item = itemCardCache.get(id);
+        if (item == null) {
+            throw new NotFoundException("Объект не найден");
+        }
+        return item;
+    }
+
+    @Override
+    public long getItemVersion(Long id) {
+        return itemRepository.findVersionById(id).orElseThrow(() -> new NotFoundException("Объект не найден"));
+    }
 
-        return ItemMapper.toItemDto(item);
+    @Override
+    public void exportItems(Long userId, Consumer<ItemDto> sink) {
+        userCache.getUser(userId);
+
+        entityStreamExporter.exportChunks(itemRepository.streamByOwnerId(userId), this::toItemDtosWithComments, sink);
+    }
+
+    /**
+     * Отзывы части выгрузки читаются одним запросом по id её вещей.
+     */
+    private List<ItemDto> toItemDtosWithComments(List<Item> items) {
+        Map<Long, List<CommentDto>> comments = commentRepository.findAllByItemIds(items.stream().map(Item::getId).toList())
+                .stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId(),
+                        Collectors.mapping(CommentMapper::toCommentDto, Collectors.toList())));
+
+        return items.stream()
+                .map(item -> ItemMapper.toItemDto(item, comments.getOrDefault(item.getId(), List.of())))
+                .toList();
     }
 
     @Override
-    public List<ItemDto> getSearchedItems(String text) {
-        return itemRepository.findByNameOrDescriptionWithComments(text).stream().map(ItemMapper::toItemDto).toList();
+    public List<ItemDto> getSearchedItems(String text, Long afterId, Integer size, boolean withComments) {
+        return loadInOrder(itemSearchEngine.search(text, afterId == null ? 0 : afterId, size), withComments);
+    }
+
+    @Override
+    public List<ItemDto> getRankedItems(String text, int limit, boolean withComments) {
+        return loadInOrder(itemSearchEngine.searchRanked(text, limit), withComments);
+    }
+
+    /**
+     * Вещи в порядке ids; отзывы загружаются только по запросу, иначе comments в ответе - пустой список.
+     */
+    private List<ItemDto> loadInOrder(List<Long> ids, boolean withComments) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Item> items = (withComments ? itemRepository.findAllByIdWithComments(ids) : itemRepository.findAllById(ids))
+                .stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        Function<Item, ItemDto> mapper = withComments ? ItemMapper::toItemDto : item -> ItemMapper.toItemDto(item, List.of());
+        return ids.stream().map(items::get).filter(Objects::nonNull).map(mapper).toList();
     }
 
     @Override
+    @Transactional
     public ItemDto createItem(Item item, Long userId) {
-        User user = userRepository.findById(userId).orElseThrow(() -> new NotFoundException("Пользователь не найден"));
+        userCache.getUser(userId);
 
-        item.setOwner(user);
-        return ItemMapper.toItemDto(itemRepository.save(item));
+        item.setOwner(userRepository.getReferenceById(userId));
+        Item savedItem = itemRepository.save(item);
+        indexAfterCommit(List.of(savedItem));
+        return ItemMapper.toItemDto(savedItem, List.of());
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<BatchResult> createItems(List<ItemDto> items, Long userId) {
+        userCache.getUser(userId);
+
+        return batchWriter.write(items, chunk -> chunk.stream().map(ItemServiceImpl::validateNewItem).toList(), chunk -> {
+            User owner = userRepository.getReferenceById(userId);
+            List<Item> newItems = chunk.stream().map(ItemMapper::toItem).toList();
+            newItems.forEach(item -> {
+                item.setId(null);
+                item.setOwner(owner);
+            });
+
+            itemRepository.saveAll(newItems);
+            indexAfterCommit(newItems);
+            return newItems.stream().map(Item::getId).toList();
+        });
     }
 
     @Override
+    @Transactional
     public ItemDto updateItem(Long itemId, Long userId, Item newItemRequest) {
-        User user = userRepository.findById(userId).orElseThrow(() -> new NotFoundException("Пользователь не найден"));
+        userCache.getUser(userId);
         Item item = itemRepository.findByIdWithComments(itemId).orElseThrow(() -> new NotFoundException("Объект не найден"));
 
-        if (!item.getOwner().equals(user)) {
+        if (!item.getOwner().getId().equals(userId)) {
             throw new ValidationException("Этот пользователь не может редактировать объект");
         }
 
         Item updatedItem = ItemMapper.updateItemField(item, newItemRequest);
         updatedItem = itemRepository.save(updatedItem);
+        indexAfterCommit(List.of(updatedItem));
+        itemCardCache.invalidate(itemId);
         return ItemMapper.toItemDto(updatedItem);
     }
 
     @Override
+    @Transactional
     public CommentDto addComment(Long itemId, Long userId, String text) {
-        Item item = itemRepository.findByIdWithComments(itemId).orElseThrow(() -> new NotFoundException("Объект не найден"));
-        User user = userRepository.findById(userId).orElseThrow(() -> new NotFoundException("Пользователь не найден"));
-        List<Booking> booking = bookingRepository.findAllByBookerIdOrderByStartDesc(user.getId());
-        boolean isThisBooker = false;
-
-        for (Booking bookingItem : booking) {
-            if (bookingItem.getItem().equals(item)) {
-                isThisBooker = true;
+        UserDto user = userCache.getUser(userId);
 
-                if (bookingItem.getStatus() == Status.APPROVED && bookingItem.getEnd().isAfter(LocalDateTime.now())) {
-                    throw new ValidationException("Этот пользователь не может добавить комментарий");
-                }
-
-                break;
+        if (!bookingRepository.existsByBookerIdAndItemIdAndStatusAndEndBefore(userId, itemId, Status.APPROVED, LocalDateTime.now())) {
+            if (!itemRepository.existsById(itemId)) {
+                throw new NotFoundException("Объект не найден");
             }
-        }
-
-        if (!isThisBooker) {
             throw new ValidationException("Этот пользователь не может добавить комментарий");
         }
 
-        Comment comment = CommentMapper.toComment(item, text, user);
+        Comment comment = CommentMapper.toComment(itemRepository.getReferenceById(itemId), text, userRepository.getReferenceById(userId));
         commentRepository.save(comment);
+        itemRepository.incrementVersion(itemId);
+        itemCardCache.invalidate(itemId);
+        eventPublisher.publish(EventType.COMMENT_ADDED, comment.getId(), itemId, userId);
+
+        return CommentMapper.toCommentDto(comment, user.getName());
+    }
 
-        return CommentMapper.toCommentDto(comment);
+    /**
+     * Поисковый индекс обновляется только после фиксации транзакции, поэтому откаченные
+     * изменения в него не попадают.
+     */
+    private void indexAfterCommit(List<Item> items) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                items.forEach(itemSearchEngine::index);
+            }
+        });
+    }
+
+    private static String validateNewItem(ItemDto item) {
+        if (item.getAvailable() == null) {
+            return "Необходимо указать статус вещи";
+        }
+        if (item.getName() == null || item.getName().isBlank()) {
+            return "Необходимо указать название вещи";
+        }
+        if (item.getDescription() == null) {
+            return "Необходимо указать описание вещи";
+        }
+        return null;
     }
 }
@@ -0,0 +1,88 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Считает запросы к БД и время их выполнения для каждого HTTP-запроса, публикует их в метриках
+ * shareit.http.jdbc.queries и shareit.http.jdbc.time, пишет в лог запросы, превысившие пороги,
+ * и при shareit.jdbc.monitor.header=true добавляет заголовки X-Query-Count и X-Query-Time-Ms.
+ */
+@Slf4j
+@Component
+public class QueryCountFilter extends OncePerRequestFilter {
+    public static final String QUERY_COUNT_HEADER = "X-Query-Count";
+    public static final String QUERY_TIME_HEADER = "X-Query-Time-Ms";
+
+    private final MeterRegistry meterRegistry;
+    private final int maxQueries;
+    private final Duration slowRequest;
+    private final boolean header;
+
+    public QueryCountFilter(MeterRegistry meterRegistry,
+                            @Value("${shareit.jdbc.monitor.max-queries:10}") int maxQueries,
+                            @Value("${shareit.jdbc.monitor.slow-request:500ms}") Duration slowRequest,
+                            @Value("${shareit.jdbc.monitor.header:false}") boolean header) {
+        this.meterRegistry = meterRegistry;
+        this.maxQueries = maxQueries;
+        this.slowRequest = slowRequest;
+        this.header = header;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        ContentCachingResponseWrapper cachingResponse = header ? new ContentCachingResponseWrapper(response) : null;
+        QueryStats stats = QueryStatsHolder.start();
+        long started = System.nanoTime();
+
+        try {
+            filterChain.doFilter(request, cachingResponse != null ? cachingResponse : response);
+        } finally {
+            QueryStatsHolder.clear();
+            record(request, stats, System.nanoTime() - started);
+
+            if (cachingResponse != null) {
+                if (!request.isAsyncStarted()) {
+                    cachingResponse.setHeader(QUERY_COUNT_HEADER, String.valueOf(stats.getCount()));
+                    cachingResponse.setHeader(QUERY_TIME_HEADER, String.valueOf(TimeUnit.NANOSECONDS.toMillis(stats.getNanos())));
+                }
+                cachingResponse.copyBodyToResponse();
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, QueryStats stats, long requestNanos) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+
+        DistributionSummary.builder("shareit.http.jdbc.queries")
+                .tags("method", request.getMethod(), "uri", uri)
+                .register(meterRegistry)
+                .record(stats.getCount());
+        Timer.builder("shareit.http.jdbc.time")
+                .tags("method", request.getMethod(), "uri", uri)
+                .register(meterRegistry)
+                .record(stats.getNanos(), TimeUnit.NANOSECONDS);
+
+        if (stats.getCount() > maxQueries || requestNanos > slowRequest.toNanos()) {
+            log.warn("{} {}: {} запросов к БД, {} мс в БД, {} мс всего", request.getMethod(), request.getRequestURI(),
+                    stats.getCount(), TimeUnit.NANOSECONDS.toMillis(stats.getNanos()), TimeUnit.NANOSECONDS.toMillis(requestNanos));
+        }
+    }
+}
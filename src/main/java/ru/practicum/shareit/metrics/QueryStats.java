@@ -0,0 +1,14 @@
+package ru.practicum.shareit.metrics;
+
+import lombok.Getter;
+
+@Getter
+public class QueryStats {
+    private int count;
+    private long nanos;
+
+    void record(long elapsedNanos) {
+        count++;
+        nanos += elapsedNanos;
+    }
+}
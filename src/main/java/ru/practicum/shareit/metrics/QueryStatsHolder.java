@@ -0,0 +1,33 @@
+package ru.practicum.shareit.metrics;
+
+/**
+ * Статистика запросов к БД, выполненных в текущем потоке в рамках HTTP-запроса.
+ * Запросы вне start()/clear() не учитываются.
+ */
+public final class QueryStatsHolder {
+    private static final ThreadLocal<QueryStats> CURRENT = new ThreadLocal<>();
+
+    private QueryStatsHolder() {
+    }
+
+    public static QueryStats start() {
+        QueryStats stats = new QueryStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    public static QueryStats current() {
+        return CURRENT.get();
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    static void record(long elapsedNanos) {
+        QueryStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.record(elapsedNanos);
+        }
+    }
+}
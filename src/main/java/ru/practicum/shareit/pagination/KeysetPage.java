@@ -0,0 +1,25 @@
+package ru.practicum.shareit.pagination;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Списки отдаются страницами по ключу: afterId - id последнего элемента предыдущей страницы, size - размер
+ * страницы (по умолчанию 100). Полная страница означает, что список мог быть обрезан, - тогда в заголовке
+ * X-Next-After-Id передается afterId для следующего запроса.
+ */
+public final class KeysetPage {
+    public static final String NEXT_AFTER_ID_HEADER = "X-Next-After-Id";
+
+    private KeysetPage() {
+    }
+
+    public static <T> List<T> of(List<T> page, int size, Function<T, Long> id, HttpServletResponse response) {
+        if (!page.isEmpty() && page.size() >= size) {
+            response.setHeader(NEXT_AFTER_ID_HEADER, String.valueOf(id.apply(page.get(page.size() - 1))));
+        }
+        return page;
+    }
+}
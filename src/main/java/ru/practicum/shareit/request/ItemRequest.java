@@ -16,7 +16,7 @@ public class ItemRequest {
 
     private String description;
 
-    @OneToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "requestor_id")
     private User requester;
 
@@ -1,16 +1,25 @@
 package ru.practicum.shareit.user;
 
+import io.micrometer.core.annotation.Timed;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import ru.practicum.shareit.batch.BatchResult;
+import ru.practicum.shareit.pagination.KeysetPage;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.util.List;
 
+@Timed("shareit.controller")
 @RestController
 @RequestMapping(path = "/users")
 @RequiredArgsConstructor
@@ -19,13 +28,19 @@ public class UserController {
     private final UserService userService;
 
     @GetMapping
-    public List<UserDto> getUsers() {
-        return userService.getUsers();
+    public List<UserDto> getUsers(@RequestParam(required = false) Long afterId,
+                                  @RequestParam(defaultValue = "100") @Positive @Max(1000) Integer size,
+                                  HttpServletResponse response) {
+        return KeysetPage.of(userService.getUsers(afterId, size), size, UserDto::getId, response);
     }
 
     @GetMapping("/{id}")
-    public UserDto getUserById(@PathVariable("id") Long id) {
-        return userService.getUserById(id);
+    public UserDto getUserById(@PathVariable("id") Long id, WebRequest request) {
+        long version = userService.getUserVersion(id);
+        if (request.checkNotModified(String.valueOf(version))) {
+            return null;
+        }
+        return userService.getUserById(id, version);
     }
 
     @PostMapping
@@ -34,6 +49,11 @@ public class UserController {
         return userService.createUser(UserMapper.mapToUser(user));
     }
 
+    @PostMapping("/batch")
+    public List<BatchResult> createUsers(@RequestBody @Size(max = 10000) List<UserDto> users) {
+        return userService.createUsers(users);
+    }
+
     @PatchMapping("/{id}")
     public UserDto updateUser(@PathVariable("id") Long id, @RequestBody UserDto newUserRequest) {
         return userService.updateUser(UserMapper.mapToUser(newUserRequest), id);
@@ -0,0 +1,102 @@
+package ru.practicum.shareit.user.cache;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Фильтр Блума по занятым email. Отрицательный ответ точен, поэтому для нового адреса
+ * проверку в БД можно пропустить и сразу выполнить вставку. Положительный ответ может быть
+ * ложным, и тогда адрес проверяется запросом. Удаления в фильтре не отражаются: это только
+ * увеличивает долю лишних проверок, уникальность всё равно гарантирует индекс в БД.
+ * Адреса сравниваются без учёта регистра, как в уникальном индексе по LOWER(email).
+ */
+@Slf4j
+@Component
+public class EmailBloomFilter {
+    private final UserRepository userRepository;
+    private final boolean enabled;
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+
+    public EmailBloomFilter(UserRepository userRepository,
+                            @Value("${shareit.users.email-bloom-filter.enabled:false}") boolean enabled,
+                            @Value("${shareit.users.email-bloom-filter.expected-insertions:1000000}") long expectedInsertions,
+                            @Value("${shareit.users.email-bloom-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.userRepository = userRepository;
+        this.enabled = enabled;
+        long optimalBits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.bitCount = enabled ? Math.max(64, optimalBits) : 64;
+        this.bits = new AtomicLongArray((int) ((bitCount + 63) / 64));
+        this.hashCount = Math.max(1, (int) Math.round((double) optimalBits / expectedInsertions * Math.log(2)));
+    }
+
+    @PostConstruct
+    void load() {
+        if (enabled) {
+            userRepository.findAllEmails().forEach(this::put);
+            log.info("Фильтр email инициализирован: {} бит, {} хэш-функций", bitCount, hashCount);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean mightContain(String email) {
+        if (!enabled) {
+            return true;
+        }
+
+        long hash = hash(email.toLowerCase(Locale.ROOT));
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = Math.floorMod(h1 + (long) i * h2, bitCount);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    public void put(String email) {
+        if (!enabled) {
+            return;
+        }
+
+        long hash = hash(email.toLowerCase(Locale.ROOT));
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = Math.floorMod(h1 + (long) i * h2, bitCount);
+            int index = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long word = bits.get(index);
+            while ((word & mask) == 0 && !bits.compareAndSet(index, word, word | mask)) {
+                word = bits.get(index);
+            }
+        }
+    }
+
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
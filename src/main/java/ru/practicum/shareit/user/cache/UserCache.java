@@ -0,0 +1,85 @@
+package ru.practicum.shareit.user.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.mapper.UserMapper;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.Duration;
+
+/**
+ * Кэш пользователей по id для проверки заголовка X-Sharer-User-Id без обращения к БД.
+ * Ограничен по размеру и времени жизни записи, отсутствующие пользователи не кэшируются.
+ * Метрики попаданий и промахов публикуются как cache.* с тегом cache=users.
+ */
+@Component
+public class UserCache {
+    private final UserRepository userRepository;
+    private final Cache<Long, UserDto> cache;
+
+    public UserCache(UserRepository userRepository,
+                     MeterRegistry meterRegistry,
+                     @Value("${shareit.user-cache.maximum-size:10000}") long maximumSize,
+                     @Value("${shareit.user-cache.expire-after-write:10m}") Duration expireAfterWrite) {
+        this.userRepository = userRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "users");
+    }
+
+    public UserDto getUser(Long id) {
+        UserDto user = find(id);
+        if (user == null) {
+            throw new NotFoundException("Пользователь не найден");
+        }
+        return user;
+    }
+
+    /**
+     * Пользователь не старее версии minVersion: запись, устаревшая из-за изменения на другом узле,
+     * перечитывается из БД.
+     */
+    public UserDto getUser(Long id, long minVersion) {
+        UserDto user = getUser(id);
+        if (user.getVersion() == null || user.getVersion() < minVersion) {
+            cache.invalidate(id);
+            user = getUser(id);
+        }
+        return user;
+    }
+
+    public boolean exists(Long id) {
+        return find(id) != null;
+    }
+
+    public void invalidate(Long id) {
+        cache.invalidate(id);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidate(id);
+                }
+            });
+        }
+    }
+
+    private UserDto find(Long id) {
+        if (id == null) {
+            return null;
+        }
+        return cache.get(id, key -> userRepository.findById(key).map(UserMapper::mapToUserDto).orElse(null));
+    }
+}
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.user.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 
@@ -10,4 +11,7 @@ public class UserDto {
 
     @NotNull(message = "Отсутствует email у пользователя")
     private String email;
+
+    @JsonIgnore
+    private Long version;
 }
@@ -1,9 +1,27 @@
 package ru.practicum.shareit.user.repository;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.user.User;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 public interface UserRepository extends JpaRepository<User, Long> {
-    List<User> findByEmail(String email);
+    @Query("SELECT COUNT(u) > 0 FROM User u WHERE LOWER(u.email) = :emailKey")
+    boolean existsByEmailKey(@Param("emailKey") String emailKey);
+
+    @Query("SELECT u.email FROM User u")
+    List<String> findAllEmails();
+
+    @Query("SELECT LOWER(u.email) FROM User u WHERE LOWER(u.email) IN :emailKeys")
+    Set<String> findExistingEmailKeys(@Param("emailKeys") Collection<String> emailKeys);
+
+    List<User> findAllByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    @Query("SELECT u.version FROM User u WHERE u.id = :id")
+    Optional<Long> findVersionById(@Param("id") long id);
 }
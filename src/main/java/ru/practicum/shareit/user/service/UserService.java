@@ -1,16 +1,21 @@
 package ru.practicum.shareit.user.service;
 
+import ru.practicum.shareit.batch.BatchResult;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.dto.UserDto;
 import java.util.List;
 
 public interface UserService {
-    List<UserDto> getUsers();
+    List<UserDto> getUsers(Long afterId, Integer size);
 
-    UserDto getUserById(Long id);
+    UserDto getUserById(Long id, long version);
+
+    long getUserVersion(Long id);
 
     UserDto createUser(User user);
 
+    List<BatchResult> createUsers(List<UserDto> users);
+
     UserDto updateUser(User newUserRequest, Long userId);
 
     void deleteUserById(Long id);
@@ -2,67 +2,204 @@ package ru.practicum.shareit.user.service;
 
 import lombok.RequiredArgsConstructor;
 import org.apache.commons.validator.routines.EmailValidator;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.batch.BatchResult;
+import ru.practicum.shareit.batch.ChunkedBatchWriter;
 import ru.practicum.shareit.exception.DuplicatedDataException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.cache.ItemCardCache;
+import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.cache.EmailBloomFilter;
+import ru.practicum.shareit.user.cache.UserCache;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final ItemCardCache itemCardCache;
+    private final UserCache userCache;
+    private final EmailBloomFilter emailBloomFilter;
+    private final ChunkedBatchWriter batchWriter;
     EmailValidator emailValidator = EmailValidator.getInstance();
 
     @Override
-    public List<UserDto> getUsers() {
-        return userRepository.findAll().stream().map(UserMapper::mapToUserDto).toList();
+    public List<UserDto> getUsers(Long afterId, Integer size) {
+        return userRepository.findAllByIdGreaterThanOrderByIdAsc(afterId == null ? 0 : afterId, Limit.of(size)).stream()
+                .map(UserMapper::mapToUserDto)
+                .toList();
     }
 
     @Override
-    public UserDto getUserById(Long id) {
-        return UserMapper.mapToUserDto(userRepository.findById(id).orElseThrow(() -> new NotFoundException("Пользователь не найден")));
+    public UserDto getUserById(Long id, long version) {
+        return userCache.getUser(id, version);
     }
 
     @Override
-    public UserDto createUser(User user) {
+    public long getUserVersion(Long id) {
+        return userRepository.findVersionById(id).orElseThrow(() -> new NotFoundException("Пользователь не найден"));
+    }
 
-        if (!emailValidator.isValid(user.getEmail())) {
-            throw new ValidationException("Неверно указан email");
-        }
+    @Override
+    @Transactional
+    public UserDto createUser(User user) {
+        user.setEmail(trimEmail(user.getEmail()));
+        checkEmail(user.getEmail());
 
-        if (!userRepository.findByEmail(user.getEmail()).isEmpty()) {
-            throw new DuplicatedDataException(String.format("Этот E-mail \"%s\" уже используется", user.getEmail()));
-        }
+        User savedUser = saveAndFlush(user);
+        emailBloomFilter.put(savedUser.getEmail());
+        return UserMapper.mapToUserDto(savedUser);
+    }
 
-        return UserMapper.mapToUserDto(userRepository.save(user));
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<BatchResult> createUsers(List<UserDto> users) {
+        return batchWriter.write(users, this::validateChunk, this::insertChunk);
     }
 
     @Override
+    @Transactional
     public UserDto updateUser(User newUserRequest, Long userId) {
         if (newUserRequest.getEmail() != null) {
-            if (!emailValidator.isValid(newUserRequest.getEmail())) {
-                throw new ValidationException("Неверно указан email");
-            }
+            newUserRequest.setEmail(trimEmail(newUserRequest.getEmail()));
+            checkEmail(newUserRequest.getEmail());
+        }
 
-            if (!userRepository.findByEmail(newUserRequest.getEmail()).isEmpty()) {
-                throw new DuplicatedDataException(String.format("Этот E-mail \"%s\" уже используется", newUserRequest.getEmail()));
+        User updatedUser = userRepository.findById(userId).orElseThrow(() -> new NotFoundException("Пользователь не найден"));
+        boolean renamed = newUserRequest.getName() != null && !newUserRequest.getName().equals(updatedUser.getName());
+        updatedUser = saveAndFlush(UserMapper.updateUserFields(updatedUser, newUserRequest));
+        if (renamed) {
+            // имя автора входит в карточку вещи вместе с отзывами: меняем ETag и сбрасываем кэш таких вещей
+            List<Long> commentedItemIds = itemRepository.findIdsCommentedBy(userId);
+            if (!commentedItemIds.isEmpty()) {
+                itemRepository.incrementVersions(commentedItemIds);
+                itemCardCache.invalidateAll(commentedItemIds);
             }
         }
-
-        User updatedUser = UserMapper.updateUserFields(userRepository.findById(userId).orElseThrow(() -> new NotFoundException("Пользователь не найден")),
-                newUserRequest);
-        updatedUser = userRepository.save(updatedUser);
+        emailBloomFilter.put(updatedUser.getEmail());
+        userCache.invalidate(userId);
         return UserMapper.mapToUserDto(updatedUser);
     }
 
     @Override
+    @Transactional
     public void deleteUserById(Long id) {
         userRepository.deleteById(id);
+        userCache.invalidate(id);
+    }
+
+    /**
+     * Email хранится и возвращается в том виде, в каком его прислали, без пробелов по краям.
+     */
+    private static String trimEmail(String email) {
+        return email == null ? null : email.trim();
+    }
+
+    /**
+     * Ключ уникальности email: адреса, различающиеся только регистром, совпадают,
+     * как в уникальном индексе по LOWER(email).
+     */
+    private static String emailKey(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Проверка формата и быстрый отказ для адреса, который, скорее всего, уже занят.
+     * Если фильтр Блума выключен или уверен, что адрес новый, запрос в БД не выполняется:
+     * уникальность обеспечивает индекс, а нарушение разбирает {@link #saveAndFlush(User)}.
+     */
+    private void checkEmail(String email) {
+        if (!emailValidator.isValid(email)) {
+            throw new ValidationException("Неверно указан email");
+        }
+
+        if (emailBloomFilter.isEnabled() && emailBloomFilter.mightContain(email) && userRepository.existsByEmailKey(emailKey(email))) {
+            throw new DuplicatedDataException(String.format("Этот E-mail \"%s\" уже используется", email));
+        }
+    }
+
+    private User saveAndFlush(User user) {
+        try {
+            return userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            if (isEmailConflict(e)) {
+                throw new DuplicatedDataException(String.format("Этот E-mail \"%s\" уже используется", user.getEmail()));
+            }
+            throw e;
+        }
+    }
+
+    private static boolean isEmailConflict(DataIntegrityViolationException e) {
+        return e.getCause() instanceof ConstraintViolationException violation && violation.getConstraintName() != null
+                && violation.getConstraintName().toLowerCase(Locale.ROOT).contains("email");
+    }
+
+    /**
+     * Проверяет часть пакета: формат, повторы внутри пакета и, одним запросом, адреса, уже занятые в БД.
+     */
+    private List<String> validateChunk(List<UserDto> chunk) {
+        List<String> errors = new ArrayList<>(chunk.size());
+        Set<String> emailKeys = new HashSet<>();
+
+        for (UserDto user : chunk) {
+            user.setEmail(trimEmail(user.getEmail()));
+
+            if (user.getName() == null || user.getName().isBlank()) {
+                errors.add("Необходимо указать имя пользователя");
+            } else if (user.getEmail() == null) {
+                errors.add("Отсутствует email у пользователя");
+            } else if (!emailValidator.isValid(user.getEmail())) {
+                errors.add("Неверно указан email");
+            } else if (!emailKeys.add(emailKey(user.getEmail()))) {
+                errors.add(String.format("Этот E-mail \"%s\" уже используется", user.getEmail()));
+            } else {
+                errors.add(null);
+            }
+        }
+
+        List<String> candidates = emailKeys.stream().filter(emailBloomFilter::mightContain).toList();
+        Set<String> existing = candidates.isEmpty() ? Set.of() : userRepository.findExistingEmailKeys(candidates);
+
+        for (int i = 0; i < chunk.size(); i++) {
+            if (errors.get(i) == null && existing.contains(emailKey(chunk.get(i).getEmail()))) {
+                errors.set(i, String.format("Этот E-mail \"%s\" уже используется", chunk.get(i).getEmail()));
+            }
+        }
+
+        return errors;
+    }
+
+    private List<Long> insertChunk(List<UserDto> chunk) {
+        List<User> users = chunk.stream().map(UserMapper::mapToUser).toList();
+        users.forEach(user -> user.setId(null));
+
+        try {
+            userRepository.saveAllAndFlush(users);
+        } catch (DataIntegrityViolationException e) {
+            if (users.size() == 1 && isEmailConflict(e)) {
+                throw new DuplicatedDataException(String.format("Этот E-mail \"%s\" уже используется", users.getFirst().getEmail()));
+            }
+            throw e;
+        }
+
+        users.forEach(user -> emailBloomFilter.put(user.getEmail()));
+        return users.stream().map(User::getId).toList();
     }
 }
@@ -0,0 +1,3 @@
+ALTER TABLE users ADD COLUMN IF NOT EXISTS email_lower VARCHAR(512) GENERATED ALWAYS AS (LOWER(email));
+
+ALTER TABLE users ADD CONSTRAINT IF NOT EXISTS ux_users_email_lower UNIQUE (email_lower);
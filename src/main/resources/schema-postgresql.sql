@@ -0,0 +1,31 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_items_name_trgm ON items USING gin (LOWER(name) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_items_description_trgm ON items USING gin (LOWER(description) gin_trgm_ops);
+
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+DO 'BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = ''ex_bookings_approved_overlap'') THEN
+        ALTER TABLE bookings ADD CONSTRAINT ex_bookings_approved_overlap
+            EXCLUDE USING gist (item_id WITH =, tsrange(start_date, end_date, ''[]'') WITH &&)
+            WHERE (status = ''APPROVED'');
+    END IF;
+END';
+
+CREATE UNIQUE INDEX IF NOT EXISTS ux_users_email_lower ON users (LOWER(email));
+
+DO 'DECLARE
+    t TEXT;
+    max_id BIGINT;
+    last_id BIGINT;
+BEGIN
+    FOREACH t IN ARRAY ARRAY[''users'', ''items'', ''bookings''] LOOP
+        EXECUTE format(''SELECT MAX(id) FROM %I'', t) INTO max_id;
+        SELECT last_value INTO last_id FROM pg_sequences WHERE sequencename = t || ''_seq'';
+        IF max_id IS NOT NULL AND (last_id IS NULL OR max_id > last_id) THEN
+            PERFORM setval(t || ''_seq'', max_id);
+        END IF;
+    END LOOP;
+END';
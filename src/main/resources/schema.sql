@@ -1,4 +1,12 @@
 
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+
+CREATE SEQUENCE IF NOT EXISTS items_seq START WITH 1 INCREMENT BY 50;
+
+CREATE SEQUENCE IF NOT EXISTS bookings_seq START WITH 1 INCREMENT BY 50;
+
+CREATE SEQUENCE IF NOT EXISTS outbox_events_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE IF NOT EXISTS users (
     id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
     name VARCHAR(255) NOT NULL,
@@ -41,6 +49,23 @@ CREATE TABLE IF NOT EXISTS comments (
    CONSTRAINT fk_item FOREIGN KEY (item_id) REFERENCES items(id) ON DELETE CASCADE
 );
 
+CREATE TABLE IF NOT EXISTS outbox_events (
+   id BIGINT NOT NULL PRIMARY KEY,
+   type VARCHAR(32) NOT NULL,
+   aggregate_id BIGINT NOT NULL,
+   item_id BIGINT,
+   user_id BIGINT,
+   created TIMESTAMP NOT NULL,
+   processed TIMESTAMP,
+   enqueued TIMESTAMP,
+   attempts INT NOT NULL DEFAULT 0,
+   failed TIMESTAMP
+);
+
+ALTER TABLE users ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE items ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
 ALTER TABLE items ADD FOREIGN KEY (owner_id) REFERENCES users (id);
 
 ALTER TABLE items ADD FOREIGN KEY (request_id) REFERENCES requests (id);
@@ -52,3 +77,15 @@ ALTER TABLE bookings ADD FOREIGN KEY (booker_id) REFERENCES users (id);
 ALTER TABLE requests ADD FOREIGN KEY (requestor_id) REFERENCES users (id);
 
 ALTER TABLE comments ADD FOREIGN KEY (author_id) REFERENCES users (id);
+
+CREATE INDEX IF NOT EXISTS idx_items_owner_id ON items (owner_id, id);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_start ON bookings (booker_id, start_date, id);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_item_status_start ON bookings (item_id, status, start_date);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_item_status_end ON bookings (item_id, status, end_date);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_item_status_end ON bookings (booker_id, item_id, status, end_date);
+
+CREATE INDEX IF NOT EXISTS idx_outbox_events_processed_created ON outbox_events (processed, created);
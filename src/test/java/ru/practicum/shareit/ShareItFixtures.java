@@ -0,0 +1,58 @@
+package ru.practicum.shareit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Создание данных для тестов через API. Id берутся из ответов, email уникальны,
+ * поэтому тесты не зависят от порядка запуска и от данных соседних тестов.
+ */
+public final class ShareItFixtures {
+    private final MockMvc mockMvc;
+    private final ObjectMapper objectMapper;
+
+    public ShareItFixtures(MockMvc mockMvc, ObjectMapper objectMapper) {
+        this.mockMvc = mockMvc;
+        this.objectMapper = objectMapper;
+    }
+
+    public static String uniqueEmail(String name) {
+        return name + "-" + UUID.randomUUID() + "@mail.ru";
+    }
+
+    public long createUser(String name) throws Exception {
+        return idOf(mockMvc.perform(post("/users").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"" + name + "\",\"email\":\"" + uniqueEmail(name) + "\"}"))
+                .andExpect(status().isCreated()));
+    }
+
+    public long createItem(long ownerId, String name, String description) throws Exception {
+        return idOf(mockMvc.perform(post("/items").header("X-Sharer-User-Id", ownerId).contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"" + name + "\",\"description\":\"" + description + "\",\"available\":true}"))
+                .andExpect(status().isCreated()));
+    }
+
+    public long createBooking(long bookerId, long itemId, LocalDateTime start, LocalDateTime end) throws Exception {
+        return idOf(mockMvc.perform(post("/bookings").header("X-Sharer-User-Id", bookerId).contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"itemId\":" + itemId + ",\"start\":\"" + start + "\",\"end\":\"" + end + "\"}"))
+                .andExpect(status().isOk()));
+    }
+
+    public void approve(long ownerId, long bookingId) throws Exception {
+        mockMvc.perform(patch("/bookings/" + bookingId).header("X-Sharer-User-Id", ownerId).param("approved", "true"))
+                .andExpect(status().isOk());
+    }
+
+    public long idOf(ResultActions result) throws Exception {
+        return objectMapper.readTree(result.andReturn().getResponse().getContentAsString()).get("id").asLong();
+    }
+}
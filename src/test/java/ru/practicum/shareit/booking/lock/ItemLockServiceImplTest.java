@@ -0,0 +1,125 @@
+package ru.practicum.shareit.booking.lock;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class ItemLockServiceImplTest {
+    private static final int THREADS = 8;
+    private static final int OPERATIONS_PER_THREAD = 25;
+
+    private final ItemLockService itemLockService = new ItemLockServiceImpl(1024, false,
+            new TransactionTemplate(mock(PlatformTransactionManager.class)), null);
+
+    @Test
+    void serializesOperationsOnSameItem() throws Exception {
+        long[] counter = new long[1];
+
+        runConcurrently(1, () -> {
+            long value = counter[0];
+            Thread.yield();
+            counter[0] = value + 1;
+        });
+
+        assertThat(counter[0]).isEqualTo(THREADS * OPERATIONS_PER_THREAD);
+    }
+
+    @Test
+    void runsDistinctItemsConcurrently() throws Exception {
+        CountDownLatch bothInside = new CountDownLatch(2);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (long itemId = 1; itemId <= 2; itemId++) {
+                long id = itemId;
+                futures.add(executor.submit(() -> itemLockService.executeLocked(id, () -> {
+                    bothInside.countDown();
+                    return await(bothInside);
+                })));
+            }
+
+            for (Future<Boolean> future : futures) {
+                assertThat(future.get(10, TimeUnit.SECONDS)).isTrue();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void blocksSecondOperationOnSameItemUntilFirstCompletes() throws Exception {
+        CountDownLatch firstInside = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        AtomicBoolean secondEntered = new AtomicBoolean();
+
+        Thread first = new Thread(() -> itemLockService.executeLocked(1L, () -> {
+            firstInside.countDown();
+            return await(releaseFirst);
+        }));
+        Thread second = new Thread(() -> itemLockService.executeLocked(1L, () -> {
+            secondEntered.set(true);
+            return null;
+        }));
+        first.start();
+        assertThat(await(firstInside)).isTrue();
+        second.start();
+
+        while (second.getState() != Thread.State.WAITING) {
+            assertThat(second.isAlive()).isTrue();
+            Thread.onSpinWait();
+        }
+        assertThat(secondEntered).isFalse();
+
+        releaseFirst.countDown();
+        first.join(10_000);
+        second.join(10_000);
+        assertThat(secondEntered).isTrue();
+    }
+
+    private static boolean await(CountDownLatch latch) {
+        try {
+            return latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void runConcurrently(int distinctItems, Runnable criticalSection) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        try {
+            for (int thread = 0; thread < THREADS; thread++) {
+                long itemId = thread % distinctItems + 1;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                        itemLockService.executeLocked(itemId, () -> {
+                            criticalSection.run();
+                            return null;
+                        });
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package ru.practicum.shareit.booking.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.ShareItFixtures;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.metrics.QueryCountAssertions.queryCount;
+
+@SpringBootTest(properties = {"spring.datasource.url=jdbc:h2:mem:booking-approval", "shareit.jdbc.monitor.header=true"})
+@AutoConfigureMockMvc
+class BookingApprovalTest {
+    private static final int THREADS = 8;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void updatesStatusOnceAndExplainsRejectedUpdates() throws Exception {
+        ShareItFixtures fixtures = new ShareItFixtures(mockMvc, objectMapper);
+        long ownerId = fixtures.createUser("owner");
+        long bookerId = fixtures.createUser("booker");
+        long itemId = fixtures.createItem(ownerId, "Лестница", "Стремянка");
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        long first = fixtures.createBooking(bookerId, itemId, start, start.plusDays(2));
+        long overlapping = fixtures.createBooking(bookerId, itemId, start.plusDays(1), start.plusDays(3));
+        long later = fixtures.createBooking(bookerId, itemId, start.plusDays(5), start.plusDays(6));
+
+        mockMvc.perform(patch("/bookings/" + Long.MAX_VALUE).header("X-Sharer-User-Id", ownerId).param("approved", "true"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(patch("/bookings/" + first).header("X-Sharer-User-Id", bookerId).param("approved", "true"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Нет доступа к редактированию статуса бронирования"));
+
+        List<Integer> statuses = approveConcurrently(ownerId, first);
+        assertThat(statuses).containsOnlyOnce(200).hasSize(THREADS);
+        mockMvc.perform(get("/bookings/" + first).header("X-Sharer-User-Id", ownerId))
+                .andExpect(jsonPath("$.status").value("APPROVED"));
+
+        mockMvc.perform(patch("/bookings/" + first).header("X-Sharer-User-Id", ownerId).param("approved", "false"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Бронирование еще не одобрено"));
+        mockMvc.perform(patch("/bookings/" + overlapping).header("X-Sharer-User-Id", ownerId).param("approved", "true"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Время бронирования пересекается с уже существующим бронированием"));
+        mockMvc.perform(patch("/bookings/" + overlapping).header("X-Sharer-User-Id", ownerId).param("approved", "false"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("REJECTED"));
+        mockMvc.perform(patch("/bookings/" + later).header("X-Sharer-User-Id", ownerId).param("approved", "true"))
+                .andExpect(status().isOk())
+                .andExpect(queryCount(3))
+                .andExpect(jsonPath("$.status").value("APPROVED"))
+                .andExpect(jsonPath("$.booker.name").value("booker"))
+                .andExpect(jsonPath("$.item.name").value("Лестница"));
+    }
+
+    private List<Integer> approveConcurrently(long ownerId, long bookingId) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> futures = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return mockMvc.perform(patch("/bookings/" + bookingId).header("X-Sharer-User-Id", ownerId).param("approved", "true"))
+                            .andReturn().getResponse().getStatus();
+                }));
+            }
+            start.countDown();
+
+            List<Integer> statuses = new ArrayList<>();
+            for (Future<Integer> future : futures) {
+                statuses.add(future.get());
+            }
+            return statuses;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
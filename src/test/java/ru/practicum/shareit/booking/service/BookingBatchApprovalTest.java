@@ -0,0 +1,92 @@
+package ru.practicum.shareit.booking.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import ru.practicum.shareit.ShareItFixtures;
+
+import java.time.LocalDateTime;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"spring.datasource.url=jdbc:h2:mem:booking-batch-approval", "shareit.batch.chunk-size=3"})
+@AutoConfigureMockMvc
+class BookingBatchApprovalTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void decidesEachBookingAndReportsFailuresByIndex() throws Exception {
+        ShareItFixtures fixtures = new ShareItFixtures(mockMvc, objectMapper);
+        long ownerId = fixtures.createUser("owner");
+        long bookerId = fixtures.createUser("booker");
+        long itemId = fixtures.createItem(ownerId, "Палатка", "Двухместная");
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        long first = fixtures.createBooking(bookerId, itemId, start, start.plusDays(2));
+        long overlapping = fixtures.createBooking(bookerId, itemId, start.plusDays(1), start.plusDays(3));
+        long rejected = fixtures.createBooking(bookerId, itemId, start.plusDays(5), start.plusDays(6));
+        long undecided = fixtures.createBooking(bookerId, itemId, start.plusDays(8), start.plusDays(9));
+        long missing = Long.MAX_VALUE;
+
+        decide(ownerId, "[" + decision(first, true) + "," + decision(overlapping, true) + "," + decision(rejected, false) + ","
+                + decision(missing, true) + "," + decision(rejected, true) + ",{\"bookingId\":" + undecided + "}]")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(first))
+                .andExpect(jsonPath("$[1].error").value("Время бронирования пересекается с уже существующим бронированием"))
+                .andExpect(jsonPath("$[2].id").value(rejected))
+                .andExpect(jsonPath("$[3].error").value("Бронирование не найдено"))
+                .andExpect(jsonPath("$[4].error").value("Бронирование еще не одобрено"))
+                .andExpect(jsonPath("$[5].error").value("Не указано решение по бронированию"))
+                .andExpect(jsonPath("$[5].id").doesNotExist());
+
+        decide(bookerId, "[" + decision(undecided, true) + "," + decision(overlapping, true) + "]")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].error").value("Нет доступа к редактированию статуса бронирования"))
+                .andExpect(jsonPath("$[1].error").value("Нет доступа к редактированию статуса бронирования"));
+        decide(ownerId, "[" + decision(undecided, true) + "," + decision(overlapping, false) + "]")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(undecided))
+                .andExpect(jsonPath("$[1].id").value(overlapping));
+        decide(Long.MAX_VALUE, "[" + decision(undecided, true) + "]")
+                .andExpect(status().isNotFound());
+
+        expectStatus(ownerId, first, "APPROVED");
+        expectStatus(ownerId, overlapping, "REJECTED");
+        expectStatus(ownerId, rejected, "REJECTED");
+        expectStatus(ownerId, undecided, "APPROVED");
+
+        long secondBookerId = fixtures.createUser("second-booker");
+        LocalDateTime next = start.plusDays(20);
+        long earlier = fixtures.createBooking(secondBookerId, itemId, next, next.plusDays(1));
+        long shifted = fixtures.createBooking(secondBookerId, itemId, next.plusHours(1), next.plusDays(1).plusHours(1));
+        decide(ownerId, "[" + decision(earlier, true) + "," + decision(shifted, true) + "]")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(earlier))
+                .andExpect(jsonPath("$[1].error").value("Время бронирования пересекается с уже существующим бронированием"));
+    }
+
+    private ResultActions decide(long userId, String decisions) throws Exception {
+        return mockMvc.perform(patch("/bookings/batch").header("X-Sharer-User-Id", userId)
+                .contentType(MediaType.APPLICATION_JSON).content(decisions));
+    }
+
+    private static String decision(long bookingId, boolean approved) {
+        return "{\"bookingId\":" + bookingId + ",\"approved\":" + approved + "}";
+    }
+
+    private void expectStatus(long ownerId, long bookingId, String bookingStatus) throws Exception {
+        mockMvc.perform(get("/bookings/" + bookingId).header("X-Sharer-User-Id", ownerId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value(bookingStatus));
+    }
+}
@@ -0,0 +1,100 @@
+package ru.practicum.shareit.booking.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.ShareItFixtures;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+
+/**
+ * Одновременное одобрение пересекающихся бронирований на PostgreSQL. Условный UPDATE не видит
+ * незафиксированных одобрений соседних транзакций, поэтому одобренным остаётся одно бронирование только
+ * благодаря ограничению ex_bookings_approved_overlap. Тест запускается, если задана переменная
+ * SHAREIT_TEST_POSTGRES_URL (и при необходимости SHAREIT_TEST_POSTGRES_USER, SHAREIT_TEST_POSTGRES_PASSWORD).
+ */
+@EnabledIfEnvironmentVariable(named = "SHAREIT_TEST_POSTGRES_URL", matches = ".+")
+@SpringBootTest
+@AutoConfigureMockMvc
+class PostgresApprovalOverlapTest {
+    private static final int BOOKINGS = 8;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> System.getenv("SHAREIT_TEST_POSTGRES_URL"));
+        registry.add("spring.datasource.username", () -> System.getenv().getOrDefault("SHAREIT_TEST_POSTGRES_USER", "postgres"));
+        registry.add("spring.datasource.password", () -> System.getenv().getOrDefault("SHAREIT_TEST_POSTGRES_PASSWORD", "12345"));
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.jpa.database-platform", () -> "org.hibernate.dialect.PostgreSQLDialect");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+        registry.add("spring.sql.init.platform", () -> "postgresql");
+    }
+
+    @Test
+    void approvesOnlyOneOfConcurrentOverlappingBookings() throws Exception {
+        ShareItFixtures fixtures = new ShareItFixtures(mockMvc, objectMapper);
+        long ownerId = fixtures.createUser("owner");
+        long itemId = fixtures.createItem(ownerId, "Бензопила", "Для дачи");
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<Long> bookingIds = new ArrayList<>();
+        for (int i = 0; i < BOOKINGS; i++) {
+            long bookerId = fixtures.createUser("booker" + i);
+            bookingIds.add(fixtures.createBooking(bookerId, itemId, start.plusHours(i), start.plusDays(1).plusHours(i)));
+        }
+
+        List<Integer> statuses = approveConcurrently(ownerId, bookingIds);
+
+        assertThat(statuses).containsOnlyOnce(200).hasSize(BOOKINGS);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM bookings WHERE item_id = ? AND status = 'APPROVED'",
+                Long.class, itemId)).isEqualTo(1);
+    }
+
+    private List<Integer> approveConcurrently(long ownerId, List<Long> bookingIds) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(bookingIds.size());
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> futures = new ArrayList<>();
+
+        try {
+            for (long bookingId : bookingIds) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return mockMvc.perform(patch("/bookings/" + bookingId).header("X-Sharer-User-Id", ownerId)
+                                    .param("approved", "true"))
+                            .andReturn().getResponse().getStatus();
+                }));
+            }
+            start.countDown();
+
+            List<Integer> statuses = new ArrayList<>();
+            for (Future<Integer> future : futures) {
+                statuses.add(future.get());
+            }
+            return statuses;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
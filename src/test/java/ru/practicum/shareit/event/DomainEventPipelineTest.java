@@ -0,0 +1,151 @@
+package ru.practicum.shareit.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.ShareItFixtures;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"spring.datasource.url=jdbc:h2:mem:domain-events", "shareit.events.recovery.interval=PT1H",
+        "shareit.events.max-attempts=2"})
+@AutoConfigureMockMvc
+class DomainEventPipelineTest {
+    private static final long POISON_AGGREGATE_ID = 666;
+    // строки, которые тест пишет в outbox сам, в обход последовательности
+    private static final long RECOVERED_ID = 1_000_000;
+    private static final long POISON_ID = 1_000_001;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private OutboxRecoveryJob recoveryJob;
+
+    @Test
+    void deliversCommittedEvents() throws Exception {
+        ShareItFixtures fixtures = new ShareItFixtures(mockMvc, objectMapper);
+        long ownerId = fixtures.createUser("owner");
+        long bookerId = fixtures.createUser("booker");
+        long itemId = fixtures.createItem(ownerId, "Пила", "Ножовка");
+        long bookingId = fixtures.createBooking(bookerId, itemId, LocalDateTime.now().minusDays(2), LocalDateTime.now().minusDays(1));
+        mockMvc.perform(patch("/bookings/" + bookingId).header("X-Sharer-User-Id", bookerId).param("approved", "true"))
+                .andExpect(status().isBadRequest());
+        fixtures.approve(ownerId, bookingId);
+        mockMvc.perform(post("/items/" + itemId + "/comment").header("X-Sharer-User-Id", bookerId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"text\":\"Острая\"}"))
+                .andExpect(status().isCreated());
+
+        awaitUntil(() -> consumed(EventType.COMMENT_ADDED) == 1 && pending(itemId) == 0);
+        assertThat(consumed(EventType.BOOKING_CREATED)).isEqualTo(1);
+        assertThat(consumed(EventType.BOOKING_APPROVED)).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM outbox_events WHERE item_id = ?", Long.class, itemId))
+                .isEqualTo(3);
+    }
+
+    @Test
+    void claimsRecoveredEventsAndMovesRepeatedlyFailingOnesToFailed() throws Exception {
+        insertEvent(RECOVERED_ID, 1);
+        insertEvent(POISON_ID, POISON_AGGREGATE_ID);
+        double recoveredBefore = recovered();
+
+        recoveryJob.recover();
+        recoveryJob.recover();
+        assertThat(recovered() - recoveredBefore).isEqualTo(2);
+        awaitUntil(() -> timestamp(RECOVERED_ID, "processed") != null && attempts(POISON_ID) == 1);
+        assertThat(timestamp(POISON_ID, "failed")).isNull();
+
+        backdateEnqueued(POISON_ID);
+        recoveryJob.recover();
+        awaitUntil(() -> attempts(POISON_ID) == 2);
+        assertThat(timestamp(POISON_ID, "failed")).isNotNull();
+
+        backdateEnqueued(POISON_ID);
+        recoveryJob.recover();
+        assertThat(recovered() - recoveredBefore).isEqualTo(3);
+
+        jdbcTemplate.update("UPDATE outbox_events SET failed = ? WHERE id = ?", LocalDateTime.now().minusDays(8), POISON_ID);
+        recoveryJob.recover();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM outbox_events WHERE id = ?", Long.class, POISON_ID))
+                .isZero();
+    }
+
+    private void insertEvent(long id, long aggregateId) {
+        jdbcTemplate.update("INSERT INTO outbox_events (id, type, aggregate_id, item_id, user_id, created) "
+                + "VALUES (?, 'BOOKING_REJECTED', ?, NULL, NULL, ?)", id, aggregateId, LocalDateTime.now().minusMinutes(5));
+    }
+
+    private void backdateEnqueued(long id) {
+        jdbcTemplate.update("UPDATE outbox_events SET enqueued = ? WHERE id = ?", LocalDateTime.now().minusMinutes(5), id);
+    }
+
+    private LocalDateTime timestamp(long id, String column) {
+        return jdbcTemplate.queryForObject("SELECT " + column + " FROM outbox_events WHERE id = ?", LocalDateTime.class, id);
+    }
+
+    private int attempts(long id) {
+        return jdbcTemplate.queryForObject("SELECT attempts FROM outbox_events WHERE id = ?", Integer.class, id);
+    }
+
+    private double recovered() {
+        return meterRegistry.counter("shareit.events.recovered").count();
+    }
+
+    private double consumed(EventType type) {
+        return meterRegistry.counter("shareit.events.consumed", "type", type.name()).count();
+    }
+
+    private long pending(long itemId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM outbox_events WHERE processed IS NULL AND item_id = ?",
+                Long.class, itemId);
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("события не обработаны за 10 секунд").isLessThan(deadline);
+            Thread.sleep(50);
+        }
+    }
+
+    @TestConfiguration
+    static class PoisonConsumerConfig {
+        @Bean
+        DomainEventConsumer poisonConsumer() {
+            return new DomainEventConsumer() {
+                @Override
+                public String getName() {
+                    return "poison";
+                }
+
+                @Override
+                public void consume(List<DomainEvent> events) {
+                    if (events.stream().anyMatch(event -> event.aggregateId() == POISON_AGGREGATE_ID)) {
+                        throw new IllegalStateException("сбой обработчика");
+                    }
+                }
+            };
+        }
+    }
+}
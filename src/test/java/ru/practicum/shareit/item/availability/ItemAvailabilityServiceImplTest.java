@@ -0,0 +1,70 @@
+package ru.practicum.shareit.item.availability;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.dto.BookedSlot;
+import ru.practicum.shareit.item.dto.TimeSlot;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static ru.practicum.shareit.item.availability.ItemAvailabilityServiceImpl.freeSlots;
+
+class ItemAvailabilityServiceImplTest {
+    private static final LocalDateTime BASE = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    @Test
+    void wholeWindowIsFreeWithoutBookings() {
+        assertThat(freeSlots(List.of(), day(0), day(10))).containsExactly(slot(0, 10));
+    }
+
+    @Test
+    void bookingStartingAtWindowStartLeavesNoLeadingSlot() {
+        assertThat(freeSlots(List.of(booked(0, 2)), day(0), day(10))).containsExactly(slot(2, 10));
+        assertThat(freeSlots(List.of(booked(-3, 2)), day(0), day(10))).containsExactly(slot(2, 10));
+    }
+
+    @Test
+    void bookingEndingAtWindowEndLeavesNoTrailingSlot() {
+        assertThat(freeSlots(List.of(booked(8, 10)), day(0), day(10))).containsExactly(slot(0, 8));
+        assertThat(freeSlots(List.of(booked(8, 15)), day(0), day(10))).containsExactly(slot(0, 8));
+        assertThat(freeSlots(List.of(booked(0, 10)), day(0), day(10))).isEmpty();
+    }
+
+    @Test
+    void overlappingWaitingBookingsAreMerged() {
+        List<BookedSlot> booked = List.of(booked(1, 6), booked(2, 4), booked(3, 7), booked(7, 8));
+
+        assertThat(freeSlots(booked, day(0), day(10))).containsExactly(slot(0, 1), slot(8, 10));
+    }
+
+    @Test
+    void rejectsInvertedAndTooLongWindows() {
+        ItemAvailabilityServiceImpl service = new ItemAvailabilityServiceImpl(mock(ItemRepository.class),
+                mock(BookingRepository.class), Duration.ofDays(30), Duration.ofDays(366));
+
+        assertThatThrownBy(() -> service.getAvailability(1L, day(3), day(1), false))
+                .isInstanceOf(ValidationException.class)
+                .hasMessage("Окончание периода должно быть позже начала");
+        assertThatThrownBy(() -> service.getAvailability(1L, day(0), day(400), false))
+                .isInstanceOf(ValidationException.class);
+    }
+
+    private static LocalDateTime day(int offset) {
+        return BASE.plusDays(offset);
+    }
+
+    private static BookedSlot booked(int start, int end) {
+        return new BookedSlot(1L, day(start), day(end));
+    }
+
+    private static TimeSlot slot(int start, int end) {
+        return new TimeSlot(day(start), day(end));
+    }
+}
@@ -0,0 +1,56 @@
+package ru.practicum.shareit.item.availability;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.ShareItFixtures;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:item-availability")
+@AutoConfigureMockMvc
+class ItemAvailabilityTest {
+    private static final LocalDateTime BASE = LocalDateTime.now().plusDays(10).truncatedTo(ChronoUnit.DAYS);
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void returnsFreeSlotsAroundApprovedBookings() throws Exception {
+        ShareItFixtures fixtures = new ShareItFixtures(mockMvc, objectMapper);
+        long ownerId = fixtures.createUser("owner");
+        long bookerId = fixtures.createUser("booker");
+        long itemId = fixtures.createItem(ownerId, "Байдарка", "Двухместная");
+        fixtures.approve(ownerId, fixtures.createBooking(bookerId, itemId, BASE.plusDays(1), BASE.plusDays(3)));
+        fixtures.createBooking(bookerId, itemId, BASE.plusDays(5), BASE.plusDays(6));
+
+        mockMvc.perform(get("/items/" + itemId + "/availability")
+                        .param("from", day(0)).param("to", day(10)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.available").value(true))
+                .andExpect(jsonPath("$.free.length()").value(2))
+                .andExpect(jsonPath("$.free[0].end").value(day(1)))
+                .andExpect(jsonPath("$.free[1].start").value(day(3)));
+        mockMvc.perform(get("/items/availability").param("ids", String.valueOf(itemId), "999")
+                        .param("from", day(0)).param("to", day(10))
+                        .param("includeWaiting", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].free.length()").value(3));
+    }
+
+    private static String day(int offset) {
+        return BASE.plusDays(offset).format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+    }
+}
@@ -0,0 +1,62 @@
+package ru.practicum.shareit.item.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.ShareItFixtures;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.metrics.QueryCountAssertions.queryCount;
+
+@SpringBootTest(properties = {"spring.datasource.url=jdbc:h2:mem:item-cache", "shareit.jdbc.monitor.header=true"})
+@AutoConfigureMockMvc
+class ItemCacheEndpointTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void showsStatsAndCardsAndFlushes() throws Exception {
+        ShareItFixtures fixtures = new ShareItFixtures(mockMvc, objectMapper);
+        long ownerId = fixtures.createUser("owner");
+        long itemId = fixtures.createItem(ownerId, "Пила", "Ножовка");
+
+        mockMvc.perform(get("/items/" + itemId))
+                .andExpect(status().isOk())
+                .andExpect(queryCount(2));
+        mockMvc.perform(get("/items/" + itemId))
+                .andExpect(status().isOk())
+                .andExpect(queryCount(1));
+
+        mockMvc.perform(get("/actuator/itemcache"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size").value(1))
+                .andExpect(jsonPath("$.hits").value(1))
+                .andExpect(jsonPath("$.misses").value(1));
+        mockMvc.perform(get("/actuator/itemcache/" + itemId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Пила"));
+
+        mockMvc.perform(patch("/items/" + itemId).header("X-Sharer-User-Id", ownerId).contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Лобзик\"}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/itemcache/" + itemId))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/items/" + itemId))
+                .andExpect(jsonPath("$.name").value("Лобзик"));
+
+        mockMvc.perform(delete("/actuator/itemcache"))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(get("/actuator/itemcache"))
+                .andExpect(jsonPath("$.size").value(0));
+    }
+}
@@ -0,0 +1,56 @@
+package ru.practicum.shareit.item.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.comment.model.Comment;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.User;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ItemCardCacheTest {
+    private final ItemRepository itemRepository = mock(ItemRepository.class);
+    private final ItemCardCache itemCardCache = new ItemCardCache(itemRepository, new SimpleMeterRegistry(), 100, Duration.ofMinutes(1));
+
+    @Test
+    void changesToReturnedCardDoNotReachCache() {
+        when(itemRepository.findByIdWithComments(1L)).thenReturn(Optional.of(item()));
+
+        ItemDto card = itemCardCache.get(1L);
+        card.setName("Изменено");
+        card.setLastBooking(LocalDateTime.now());
+        card.getComments().getFirst().setText("Изменено");
+
+        ItemDto cached = itemCardCache.getIfPresent(1L);
+        assertThat(cached).isNotSameAs(card);
+        assertThat(cached.getName()).isEqualTo("Дрель");
+        assertThat(cached.getLastBooking()).isNull();
+        assertThat(cached.getComments().getFirst().getText()).isEqualTo("Хорошая");
+        assertThat(itemCardCache.get(1L)).isEqualTo(cached);
+    }
+
+    private static Item item() {
+        User author = new User();
+        author.setName("author");
+        Comment comment = new Comment();
+        comment.setId(1L);
+        comment.setText("Хорошая");
+        comment.setAuthor(author);
+        Item item = new Item();
+        item.setId(1L);
+        item.setName("Дрель");
+        item.setDescription("Ударная");
+        item.setAvailable(true);
+        item.setComments(List.of(comment));
+        return item;
+    }
+}
@@ -0,0 +1,51 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.model.Item;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryItemSearchEngineTest {
+    private final InMemoryItemSearchEngine engine = new InMemoryItemSearchEngine(null);
+
+    @Test
+    void ranksNameHitsAndRepeatedTermsFirstAndKeepsOnlyLimit() {
+        index(1, "Молоток", "Дрель в комплекте не идёт");
+        index(2, "Дрель", "Ударная");
+        index(3, "Набор", "Дрель и ещё одна дрель");
+        index(4, "Дрель", "Дрель аккумуляторная");
+        index(5, "Дрель", "Сломана");
+        engine.index(item(6, "Дрель", "Недоступна", false));
+        index(7, "Пила", "Ножовка");
+
+        assertThat(engine.searchRanked("дрель", 10)).containsExactly(4L, 2L, 5L, 3L, 1L);
+        assertThat(engine.searchRanked("ДРЕЛЬ", 2)).containsExactly(4L, 2L);
+        assertThat(engine.searchRanked("перфоратор", 5)).isEmpty();
+    }
+
+    @Test
+    void sumsHitsOfEachQueryWordWithoutRequiringThePhrase() {
+        index(1, "Дрель", "Ударная");
+        index(2, "Ударная дрель", "Мощная");
+        index(3, "Перфоратор", "Ударная, заменяет дрель");
+        index(4, "Шуруповёрт", "Дрель-шуруповёрт");
+        index(5, "Пила", "Ножовка");
+
+        assertThat(engine.searchRanked("дрель ударная", 10)).containsExactly(2L, 1L, 3L, 4L);
+        assertThat(engine.searchRanked("  ударная   ударная ", 10)).containsExactly(2L, 1L, 3L);
+        assertThat(engine.searchRanked("пила шуруповёрт", 1)).containsExactly(4L);
+    }
+
+    private void index(long id, String name, String description) {
+        engine.index(item(id, name, description, true));
+    }
+
+    private static Item item(long id, String name, String description, boolean available) {
+        Item item = new Item();
+        item.setId(id);
+        item.setName(name);
+        item.setDescription(description);
+        item.setAvailable(available);
+        return item;
+    }
+}
@@ -0,0 +1,71 @@
+package ru.practicum.shareit.item.search;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.ShareItFixtures;
+
+import java.time.LocalDateTime;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:ranked-search")
+@AutoConfigureMockMvc
+class RankedSearchTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void ranksInDatabaseAndLoadsCommentsOnlyOnRequest() throws Exception {
+        ShareItFixtures fixtures = new ShareItFixtures(mockMvc, objectMapper);
+        long ownerId = fixtures.createUser("owner");
+        long bookerId = fixtures.createUser("booker");
+        long hammerId = fixtures.createItem(ownerId, "Молоток", "Дрель в комплекте не идёт");
+        long impactDrillId = fixtures.createItem(ownerId, "Дрель", "Ударная");
+        long kitId = fixtures.createItem(ownerId, "Набор", "Дрель и ещё одна дрель");
+        long cordlessDrillId = fixtures.createItem(ownerId, "Дрель", "Дрель аккумуляторная");
+
+        long bookingId = fixtures.createBooking(bookerId, cordlessDrillId,
+                LocalDateTime.now().minusDays(2), LocalDateTime.now().minusDays(1));
+        fixtures.approve(ownerId, bookingId);
+        mockMvc.perform(post("/items/" + cordlessDrillId + "/comment").header("X-Sharer-User-Id", bookerId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"text\":\"Мощная\"}"))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/items/search").param("text", "дрель").param("limit", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0].id").value(cordlessDrillId))
+                .andExpect(jsonPath("$[1].id").value(impactDrillId))
+                .andExpect(jsonPath("$[2].id").value(kitId))
+                .andExpect(jsonPath("$[0].comments", hasSize(0)));
+        mockMvc.perform(get("/items/search").param("text", "ударная дрель").param("limit", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(4))
+                .andExpect(jsonPath("$[0].id").value(impactDrillId))
+                .andExpect(jsonPath("$[1].id").value(cordlessDrillId))
+                .andExpect(jsonPath("$[2].id").value(kitId))
+                .andExpect(jsonPath("$[3].id").value(hammerId));
+        mockMvc.perform(get("/items/search").param("text", "дрель").param("limit", "1").param("withComments", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].comments[0].text").value("Мощная"));
+        mockMvc.perform(get("/items/search").param("text", "дрель"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(4))
+                .andExpect(jsonPath("$[0].id").value(hammerId));
+        mockMvc.perform(get("/items/search").param("text", "дрель").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+    }
+}
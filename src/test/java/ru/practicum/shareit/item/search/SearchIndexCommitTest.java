@@ -0,0 +1,76 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import ru.practicum.shareit.batch.BatchResult;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {"spring.datasource.url=jdbc:h2:mem:search-index-commit", "shareit.search.engine=memory"})
+class SearchIndexCommitTest {
+    private static final String TOO_LONG = "ы".repeat(300);
+
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemSearchEngine itemSearchEngine;
+
+    @Test
+    void indexesOnlyCommittedItems() {
+        User owner = new User();
+        owner.setName("owner");
+        owner.setEmail("search-index-owner@mail.ru");
+        Long ownerId = userService.createUser(owner).getId();
+
+        Long itemId = itemService.createItem(item("Рубанок"), ownerId).getId();
+        assertThat(itemSearchEngine.search("рубанок", 0, 10)).containsExactly(itemId);
+
+        assertThatThrownBy(() -> itemService.createItem(item("Стамеска " + TOO_LONG), ownerId))
+                .isInstanceOf(DataIntegrityViolationException.class);
+        assertThat(itemSearchEngine.search("стамеска", 0, 10)).isEmpty();
+
+        assertThatThrownBy(() -> itemService.updateItem(itemId, ownerId, item("Фуганок " + TOO_LONG)))
+                .isInstanceOf(DataIntegrityViolationException.class);
+        assertThat(itemSearchEngine.search("фуганок", 0, 10)).isEmpty();
+        assertThat(itemSearchEngine.search("рубанок", 0, 10)).containsExactly(itemId);
+
+        itemService.updateItem(itemId, ownerId, item("Фуганок"));
+        assertThat(itemSearchEngine.search("фуганок", 0, 10)).containsExactly(itemId);
+        assertThat(itemSearchEngine.search("рубанок", 0, 10)).isEmpty();
+
+        List<BatchResult> results = itemService.createItems(
+                List.of(itemDto("Долото"), itemDto("Киянка " + TOO_LONG), itemDto("Стусло")), ownerId);
+        assertThat(results.get(1).getError()).isNotNull();
+        assertThat(itemSearchEngine.search("долото", 0, 10)).containsExactly(results.get(0).getId());
+        assertThat(itemSearchEngine.search("киянка", 0, 10)).isEmpty();
+        assertThat(itemSearchEngine.search("стусло", 0, 10)).containsExactly(results.get(2).getId());
+    }
+
+    private static ItemDto itemDto(String name) {
+        ItemDto item = new ItemDto();
+        item.setName(name);
+        item.setDescription("Столярный инструмент");
+        item.setAvailable(true);
+        return item;
+    }
+
+    private static Item item(String name) {
+        Item item = new Item();
+        item.setName(name);
+        item.setDescription("Столярный инструмент");
+        item.setAvailable(true);
+        return item;
+    }
+}
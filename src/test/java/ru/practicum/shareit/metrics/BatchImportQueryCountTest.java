@@ -0,0 +1,64 @@
+package ru.practicum.shareit.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.metrics.QueryCountAssertions.maxQueryCount;
+
+@SpringBootTest(properties = {"shareit.jdbc.monitor.header=true", "shareit.batch.chunk-size=50",
+        "spring.datasource.url=jdbc:h2:mem:batch-import"})
+@AutoConfigureMockMvc
+class BatchImportQueryCountTest {
+    private static final int ROWS = 200;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void importsUsersAndItemsInChunks() throws Exception {
+        List<String> users = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            users.add("{\"name\":\"user" + i + "\",\"email\":\"batch-" + i + "@mail.ru\"}");
+        }
+        users.set(10, "{\"name\":\"invalid\",\"email\":\"not-an-email\"}");
+        users.set(20, "{\"name\":\"copy\",\"email\":\"BATCH-0@mail.ru\"}");
+
+        String imported = mockMvc.perform(post("/users/batch").contentType(MediaType.APPLICATION_JSON).content("[" + String.join(",", users) + "]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(ROWS))
+                .andExpect(jsonPath("$[0].id").isNumber())
+                .andExpect(jsonPath("$[10].error").value("Неверно указан email"))
+                .andExpect(jsonPath("$[20].error").exists())
+                .andExpect(jsonPath("$[199].id").isNumber())
+                .andExpect(maxQueryCount(ROWS / 10))
+                .andReturn().getResponse().getContentAsString();
+        long ownerId = objectMapper.readTree(imported).get(0).get("id").asLong();
+
+        List<String> items = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            items.add("{\"name\":\"item" + i + "\",\"description\":\"description\",\"available\":true}");
+        }
+        items.set(5, "{\"name\":\"no status\",\"description\":\"description\"}");
+
+        mockMvc.perform(post("/items/batch").header("X-Sharer-User-Id", ownerId).contentType(MediaType.APPLICATION_JSON)
+                        .content("[" + String.join(",", items) + "]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(ROWS))
+                .andExpect(jsonPath("$[5].error").value("Необходимо указать статус вещи"))
+                .andExpect(jsonPath("$[199].id").isNumber())
+                .andExpect(maxQueryCount(ROWS / 10));
+    }
+}
@@ -0,0 +1,32 @@
+package ru.practicum.shareit.metrics;
+
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Проверки числа запросов к БД по заголовку {@link QueryCountFilter#QUERY_COUNT_HEADER}.
+ * Тест должен включить заголовок свойством shareit.jdbc.monitor.header=true.
+ */
+public final class QueryCountAssertions {
+
+    private QueryCountAssertions() {
+    }
+
+    public static ResultMatcher queryCount(int expected) {
+        return result -> assertThat(queryCountOf(result.getResponse().getHeader(QueryCountFilter.QUERY_COUNT_HEADER)))
+                .as("число запросов к БД")
+                .isEqualTo(expected);
+    }
+
+    public static ResultMatcher maxQueryCount(int max) {
+        return result -> assertThat(queryCountOf(result.getResponse().getHeader(QueryCountFilter.QUERY_COUNT_HEADER)))
+                .as("число запросов к БД")
+                .isLessThanOrEqualTo(max);
+    }
+
+    private static int queryCountOf(String header) {
+        assertThat(header).as("заголовок " + QueryCountFilter.QUERY_COUNT_HEADER).isNotNull();
+        return Integer.parseInt(header);
+    }
+}
@@ -0,0 +1,178 @@
+package ru.practicum.shareit.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.ShareItFixtures;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.metrics.QueryCountAssertions.queryCount;
+
+/**
+ * Число запросов к БД на основные эндпоинты. Пины функций со своими тестами (кэш карточек вещей,
+ * одобрение бронирования) лежат рядом с этими тестами.
+ */
+@SpringBootTest(properties = {"spring.datasource.url=jdbc:h2:mem:query-count", "shareit.jdbc.monitor.header=true"})
+@AutoConfigureMockMvc
+class QueryCountControllerTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private ShareItFixtures fixtures;
+    private long ownerId;
+    private long bookerId;
+    private long itemId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        fixtures = new ShareItFixtures(mockMvc, objectMapper);
+        ownerId = fixtures.createUser("owner");
+        bookerId = fixtures.createUser("booker");
+        itemId = fixtures.createItem(ownerId, "Дрель", "Простая дрель");
+    }
+
+    @Test
+    void users() throws Exception {
+        String email = ShareItFixtures.uniqueEmail("query-count");
+        long userId = fixtures.idOf(mockMvc.perform(post("/users").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"user\",\"email\":\"" + email + "\"}"))
+                .andExpect(status().isCreated())
+                .andExpect(queryCount(1)));
+        mockMvc.perform(post("/users").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"copy\",\"email\":\" " + email.toUpperCase() + "\"}"))
+                .andExpect(status().isConflict())
+                .andExpect(queryCount(1));
+
+        mockMvc.perform(get("/users/" + userId))
+                .andExpect(status().isOk())
+                .andExpect(queryCount(2));
+        mockMvc.perform(get("/users/" + userId))
+                .andExpect(status().isOk())
+                .andExpect(queryCount(1));
+        mockMvc.perform(patch("/users/" + userId).contentType(MediaType.APPLICATION_JSON).content("{\"name\":\"renamed\"}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/users/" + userId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("renamed"))
+                .andExpect(queryCount(2));
+    }
+
+    @Test
+    void items() throws Exception {
+        mockMvc.perform(post("/items").header("X-Sharer-User-Id", ownerId).contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Отвертка\",\"description\":\"Крестовая\",\"available\":true}"))
+                .andExpect(status().isCreated())
+                .andExpect(queryCount(1));
+        mockMvc.perform(get("/items").header("X-Sharer-User-Id", ownerId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(queryCount(3));
+        mockMvc.perform(get("/items/search").param("text", "дрель"))
+                .andExpect(status().isOk())
+                .andExpect(queryCount(2));
+    }
+
+    @Test
+    void exports() throws Exception {
+        long bookingId = fixtures.createBooking(bookerId, itemId,
+                LocalDateTime.now().minusDays(2), LocalDateTime.now().minusDays(1));
+        fixtures.approve(ownerId, bookingId);
+        mockMvc.perform(post("/items/" + itemId + "/comment").header("X-Sharer-User-Id", bookerId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"text\":\"Отличная дрель\"}"))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/items/export").header("X-Sharer-User-Id", ownerId))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andExpect(content().string(containsString("\"text\":\"Отличная дрель\"")))
+                .andExpect(queryCount(2));
+        mockMvc.perform(get("/bookings/export").header("X-Sharer-User-Id", bookerId))
+                .andExpect(status().isOk())
+                .andExpect(queryCount(1));
+    }
+
+    @Test
+    void bookings() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        fixtures.createBooking(bookerId, itemId, start, start.plusDays(1));
+
+        mockMvc.perform(post("/bookings").header("X-Sharer-User-Id", bookerId).contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"itemId\":" + itemId + ",\"start\":\"" + start.plusDays(2) + "\",\"end\":\""
+                                + start.plusDays(3) + "\"}"))
+                .andExpect(status().isOk())
+                .andExpect(queryCount(4));
+        mockMvc.perform(get("/bookings").header("X-Sharer-User-Id", bookerId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(queryCount(1));
+    }
+
+    @Test
+    void comments() throws Exception {
+        long bookingId = fixtures.createBooking(bookerId, itemId,
+                LocalDateTime.now().minusDays(2), LocalDateTime.now().minusDays(1));
+        fixtures.approve(ownerId, bookingId);
+
+        mockMvc.perform(post("/items/" + itemId + "/comment").header("X-Sharer-User-Id", bookerId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"text\":\"Отличная дрель\"}"))
+                .andExpect(status().isCreated())
+                .andExpect(queryCount(4));
+    }
+
+    @Test
+    void conditionalGets() throws Exception {
+        String userETag = mockMvc.perform(get("/users/" + ownerId))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        mockMvc.perform(get("/users/" + ownerId).header("If-None-Match", userETag))
+                .andExpect(status().isNotModified())
+                .andExpect(queryCount(1));
+        jdbcTemplate.update("UPDATE users SET name = 'renamed elsewhere', version = version + 1 WHERE id = ?", ownerId);
+        mockMvc.perform(get("/users/" + ownerId).header("If-None-Match", userETag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("renamed elsewhere"));
+
+        long bookingId = fixtures.createBooking(bookerId, itemId,
+                LocalDateTime.now().minusDays(2), LocalDateTime.now().minusDays(1));
+        fixtures.approve(ownerId, bookingId);
+        mockMvc.perform(post("/items/" + itemId + "/comment").header("X-Sharer-User-Id", bookerId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"text\":\"Отличная дрель\"}"))
+                .andExpect(status().isCreated());
+
+        String itemETag = mockMvc.perform(get("/items/" + itemId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.comments[0].text").value("Отличная дрель"))
+                .andReturn().getResponse().getHeader("ETag");
+        mockMvc.perform(get("/items/" + itemId).header("If-None-Match", itemETag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""))
+                .andExpect(queryCount(1));
+        mockMvc.perform(patch("/users/" + bookerId).contentType(MediaType.APPLICATION_JSON).content("{\"name\":\"renamed booker\"}"))
+                .andExpect(status().isOk());
+        String changedETag = mockMvc.perform(get("/items/" + itemId).header("If-None-Match", itemETag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.comments[0].authorName").value("renamed booker"))
+                .andReturn().getResponse().getHeader("ETag");
+        assertThat(changedETag).isNotEqualTo(itemETag);
+    }
+}
@@ -0,0 +1,42 @@
+package ru.practicum.shareit.pagination;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.ShareItFixtures;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:keyset-pagination")
+@AutoConfigureMockMvc
+class KeysetPaginationTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void fullPageCarriesNextCursorAndLastPageDoesNot() throws Exception {
+        ShareItFixtures fixtures = new ShareItFixtures(mockMvc, objectMapper);
+        long first = fixtures.createUser("first");
+        long second = fixtures.createUser("second");
+        long third = fixtures.createUser("third");
+
+        mockMvc.perform(get("/users").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].id").value(first))
+                .andExpect(header().string(KeysetPage.NEXT_AFTER_ID_HEADER, String.valueOf(second)));
+        mockMvc.perform(get("/users").param("afterId", String.valueOf(second)).param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(third))
+                .andExpect(header().doesNotExist(KeysetPage.NEXT_AFTER_ID_HEADER));
+    }
+}
@@ -0,0 +1,50 @@
+package ru.practicum.shareit.user;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:user-email-uniqueness")
+@AutoConfigureMockMvc
+class UserEmailUniquenessTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void rejectsEmailDifferingOnlyInCaseFromLegacyRow() throws Exception {
+        jdbcTemplate.update("INSERT INTO users (id, name, email) VALUES (NEXT VALUE FOR users_seq, 'legacy', 'Legacy@Mail.ru')");
+
+        mockMvc.perform(post("/users").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"copy\",\"email\":\"legacy@mail.ru\"}"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").value("Этот E-mail \"legacy@mail.ru\" уже используется"));
+    }
+
+    @Test
+    void keepsEmailAsSubmittedAndComparesIgnoringCase() throws Exception {
+        mockMvc.perform(post("/users").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"mixed\",\"email\":\" Mixed.Case@Mail.ru \"}"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.email").value("Mixed.Case@Mail.ru"));
+        mockMvc.perform(post("/users").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"copy\",\"email\":\"mixed.case@mail.ru\"}"))
+                .andExpect(status().isConflict());
+        mockMvc.perform(post("/users/batch").contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"name\":\"a\",\"email\":\"MIXED.CASE@MAIL.RU\"},"
+                                + "{\"name\":\"b\",\"email\":\"Batch@Mail.ru\"},{\"name\":\"c\",\"email\":\"batch@mail.ru\"}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].error").value("Этот E-mail \"MIXED.CASE@MAIL.RU\" уже используется"))
+                .andExpect(jsonPath("$[1].id").exists())
+                .andExpect(jsonPath("$[2].error").value("Этот E-mail \"batch@mail.ru\" уже используется"));
+    }
+}